@@ -0,0 +1,57 @@
+#!/bin/bash
+# Compares flight ingest throughput of the single-row endpoint
+# (POST /api/v1/flights) with the batch endpoint (POST /api/v1/flights/batch).
+#   ./bench/ingest-throughput.sh [rows] [batch-size]
+set -euo pipefail
+
+ROWS=${1:-2000}
+BATCH=${2:-500}
+BASE_URL=${BASE_URL:-http://localhost:8080/api/v1/flights}
+AIRPORTS=(JFK LAX ORD MIA SFO)
+AIRCRAFT=(773 763 320 321 319)
+
+# Prints one flight as JSON; departures are spread a minute apart
+flight_json() {
+  local i=$1 prefix=$2
+  local dep=$(( i % 5 )) arr=$(( (i + 1) % 5 ))
+  local start=$(date -u -d "+$(( 1440 + i )) minutes" +%Y-%m-%dT%H:%M:%S)
+  local end=$(date -u -d "+$(( 1620 + i )) minutes" +%Y-%m-%dT%H:%M:%S)
+  printf '{"flightNo":"%s%04d","scheduledDeparture":"%s","scheduledArrival":"%s",' \
+    "$prefix" $(( i % 10000 )) "$start" "$end"
+  printf '"departureAirportCode":"%s","arrivalAirportCode":"%s","status":"Scheduled","aircraftCode":"%s"}' \
+    "${AIRPORTS[$dep]}" "${AIRPORTS[$arr]}" "${AIRCRAFT[$(( i % 5 ))]}"
+}
+
+TMP=$(mktemp -d)
+trap 'rm -rf "$TMP"' EXIT
+
+echo "Preparing $ROWS rows..."
+for (( i = 0; i < ROWS; i++ )); do
+  flight_json "$i" SR > "$TMP/single-$i.json"
+done
+for (( b = 0; b < ROWS; b += BATCH )); do
+  {
+    echo -n '['
+    for (( i = b; i < b + BATCH && i < ROWS; i++ )); do
+      (( i > b )) && echo -n ','
+      flight_json "$i" BR
+    done
+    echo -n ']'
+  } > "$TMP/batch-$b.json"
+done
+
+echo "=== single-row path: $ROWS requests"
+start=$(date +%s.%N)
+for (( i = 0; i < ROWS; i++ )); do
+  curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary "@$TMP/single-$i.json" "$BASE_URL"
+done
+elapsed=$(echo "$(date +%s.%N) - $start" | bc)
+echo "elapsed ${elapsed}s, $(echo "$ROWS / $elapsed" | bc) rows/s"
+
+echo "=== batch path: $(( (ROWS + BATCH - 1) / BATCH )) requests of up to $BATCH rows"
+start=$(date +%s.%N)
+for (( b = 0; b < ROWS; b += BATCH )); do
+  curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary "@$TMP/batch-$b.json" "$BASE_URL/batch"
+done
+elapsed=$(echo "$(date +%s.%N) - $start" | bc)
+echo "elapsed ${elapsed}s, $(echo "$ROWS / $elapsed" | bc) rows/s"
@@ -0,0 +1,53 @@
+#!/bin/bash
+# Compares platform-thread and virtual-thread mode under the same load. The
+# app container is rebuilt on Java 21 and restarted once per mode, then hit
+# with a mix of blocking JDBC and DynamoDB reads. Prints throughput, p99
+# latency, thread counts and memory for each mode.
+#   ./bench/thread-mode-load.sh [requests] [concurrency]
+# Requires docker compose, `hey` (https://github.com/rakyll/hey) and jq.
+set -euo pipefail
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-400}
+APP_URL=${APP_URL:-http://localhost:8080}
+
+metric() {
+  curl -sf "$APP_URL/actuator/metrics/$1${2:+?tag=$2}" | jq -r '.measurements[] | select(.statistic == "VALUE") | .value'
+}
+
+wait_for_app() {
+  for _ in $(seq 1 60); do
+    curl -sf "$APP_URL/actuator/health/readiness" > /dev/null && return 0
+    sleep 2
+  done
+  echo "App did not become ready" >&2
+  exit 1
+}
+
+run_mode() {
+  local virtual=$1
+  echo "=== spring.threads.virtual.enabled=$virtual"
+  JAVA_VERSION=21 SPRING_THREADS_VIRTUAL_ENABLED=$virtual docker compose up -d --build app > /dev/null
+  wait_for_app
+
+  # Warm up caches and JIT before measuring
+  hey -n 2000 -c 50 "$APP_URL/api/v1/flights?limit=20" > /dev/null
+
+  hey -n $(( REQUESTS / 2 )) -c $(( CONCURRENCY / 2 )) "$APP_URL/api/v1/flights/query?origin=JFK&limit=20" \
+    > /tmp/thread-mode-flights.txt &
+  hey -n $(( REQUESTS / 2 )) -c $(( CONCURRENCY / 2 )) "$APP_URL/api/v1/weather/current?locations=JFK,LAX,ORD,MIA,SFO" \
+    > /tmp/thread-mode-weather.txt &
+  wait
+
+  for endpoint in flights weather; do
+    echo "--- $endpoint"
+    grep -E "Requests/sec|99% in" "/tmp/thread-mode-$endpoint.txt"
+    grep -E "^\s+\[[0-9]+\]" "/tmp/thread-mode-$endpoint.txt" | grep -v "\[200\]" || true
+  done
+  echo "threads: live=$(metric jvm.threads.live) peak=$(metric jvm.threads.peak)"
+  echo "heap used: $(metric jvm.memory.used area:heap) bytes, non-heap used: $(metric jvm.memory.used area:nonheap) bytes"
+  echo "hikari pending: $(metric hikaricp.connections.pending)"
+}
+
+run_mode false
+run_mode true
@@ -0,0 +1,50 @@
+#!/bin/bash
+# Compares weather ingest through single PutItem calls (POST /api/v1/weather)
+# with the BatchWriteItem path (POST /api/v1/weather/batch). Run it with the
+# app pointed at DynamoDB Local (docker-compose here, or ../dynamodb-local).
+#   ./bench/weather-ingest.sh [stations] [readings-per-station]
+set -euo pipefail
+
+STATIONS=${1:-200}
+READINGS=${2:-5}
+BASE_URL=${BASE_URL:-http://localhost:8080/api/v1/weather}
+NOW=$(date +%s)
+
+# Prints one observation; station S000..S999, one reading per minute
+observation_json() {
+  local station=$1 reading=$2 offset=$3
+  printf '{"locationId":"S%03d","timestamp":%d,"temperature":%d.5,"humidity":%d.0,"conditions":"Clear","windSpeed":%d.0}' \
+    "$station" $(( NOW - offset - reading * 60 )) $(( 50 + station % 40 )) $(( 40 + reading * 5 )) $(( 5 + station % 20 ))
+}
+
+TOTAL=$(( STATIONS * READINGS ))
+TMP=$(mktemp -d)
+trap 'rm -rf "$TMP"' EXIT
+
+{
+  echo -n '['
+  for (( s = 0; s < STATIONS; s++ )); do
+    for (( r = 0; r < READINGS; r++ )); do
+      (( s + r > 0 )) && echo -n ','
+      observation_json "$s" "$r" 3600
+    done
+  done
+  echo -n ']'
+} > "$TMP/batch.json"
+
+echo "=== single PutItem path: $TOTAL requests"
+start=$(date +%s.%N)
+for (( s = 0; s < STATIONS; s++ )); do
+  for (( r = 0; r < READINGS; r++ )); do
+    observation_json "$s" "$r" 0 | curl -sf -o /dev/null -H 'Content-Type: application/json' --data-binary @- "$BASE_URL"
+  done
+done
+elapsed=$(echo "$(date +%s.%N) - $start" | bc)
+echo "elapsed ${elapsed}s, $(echo "$TOTAL / $elapsed" | bc) items/s"
+
+echo "=== BatchWriteItem path: 1 request of $TOTAL items"
+start=$(date +%s.%N)
+curl -sf -H 'Content-Type: application/json' --data-binary "@$TMP/batch.json" "$BASE_URL/batch"
+echo
+elapsed=$(echo "$(date +%s.%N) - $start" | bc)
+echo "elapsed ${elapsed}s, $(echo "$TOTAL / $elapsed" | bc) items/s"
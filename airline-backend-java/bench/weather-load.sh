@@ -0,0 +1,31 @@
+#!/bin/bash
+# Load test for the weather read path. Run it once with the app started in
+# blocking mode and once with AWS_DYNAMODB_ASYNC_ENABLED=true, optionally with
+# a small Tomcat pool (e.g. SERVER_TOMCAT_THREADS_MAX=16), and compare the
+# p99 latency and thread counts it prints.
+#   ./bench/weather-load.sh [requests] [concurrency]
+# Requires `hey` (https://github.com/rakyll/hey) and the actuator metrics endpoint.
+set -euo pipefail
+
+REQUESTS=${1:-20000}
+CONCURRENCY=${2:-200}
+APP_URL=${APP_URL:-http://localhost:8080}
+
+metric() {
+  curl -sf "$APP_URL/actuator/metrics/$1" | jq -r '.measurements[] | select(.statistic == "VALUE") | .value'
+}
+
+echo "Threads before: live=$(metric jvm.threads.live) peak=$(metric jvm.threads.peak)"
+
+for airport in JFK LAX ORD MIA SFO; do
+  hey -n $(( REQUESTS / 5 )) -c $(( CONCURRENCY / 5 )) "$APP_URL/api/v1/weather/$airport/current" \
+    > "/tmp/weather-load-$airport.txt" &
+done
+wait
+
+for airport in JFK LAX ORD MIA SFO; do
+  echo "=== $airport"
+  grep -E "Requests/sec|Average|99% in" "/tmp/weather-load-$airport.txt"
+done
+
+echo "Threads after: live=$(metric jvm.threads.live) peak=$(metric jvm.threads.peak)"
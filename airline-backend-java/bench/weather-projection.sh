@@ -0,0 +1,74 @@
+#!/bin/bash
+# Measures how much ?fields= projection shrinks weather reads. Seeds a day of
+# per-minute readings for one station, then compares full and projected
+# payloads twice: the raw Query response from DynamoDB Local, and the app's
+# JSON response. Fails if a projected payload is not smaller.
+#   ./bench/weather-projection.sh [readings] [fields]
+# Requires a curl with --aws-sigv4 (7.75+) and the default flat layout.
+set -euo pipefail
+
+READINGS=${1:-1440}
+FIELDS=${2:-temperature,conditions}
+APP_URL=${APP_URL:-http://localhost:8080}
+DYNAMODB_URL=${DYNAMODB_URL:-http://localhost:8000}
+STATION=${STATION:-PROJ}
+END=$(date +%s)
+START=$(( END - READINGS * 60 ))
+
+TMP=$(mktemp -d)
+trap 'rm -rf "$TMP"' EXIT
+
+# Seed through the batch endpoint, which also stamps the expiry attribute
+{
+  echo -n '['
+  for (( r = 0; r < READINGS; r++ )); do
+    (( r > 0 )) && echo -n ','
+    printf '{"locationId":"%s","timestamp":%d,"temperature":%d.5,"humidity":%d.0,"conditions":"Partly Cloudy","windSpeed":%d.0,"coordinates":"40.6413° N, 73.7781° W"}' \
+      "$STATION" $(( START + r * 60 )) $(( 50 + r % 40 )) $(( 40 + r % 50 )) $(( 5 + r % 20 ))
+  done
+  echo -n ']'
+} > "$TMP/batch.json"
+curl -sf -H 'Content-Type: application/json' --data-binary "@$TMP/batch.json" "$APP_URL/api/v1/weather/batch" > /dev/null
+
+# Bytes of a DynamoDB Query response; $1 is an optional ProjectionExpression
+dynamodb_bytes() {
+  local projection=${1:-}
+  local request
+  request=$(jq -nc --arg station "$STATION" --arg start "$START" --arg end "$END" --arg projection "$projection" '
+    {TableName: "Weather",
+     KeyConditionExpression: "location_id = :l AND #t BETWEEN :s AND :e",
+     ExpressionAttributeNames: {"#t": "timestamp"},
+     ExpressionAttributeValues: {":l": {S: $station}, ":s": {N: $start}, ":e": {N: $end}},
+     ReturnConsumedCapacity: "TOTAL"}
+    + (if $projection == "" then {} else
+        {ProjectionExpression: ("location_id, #t, " + ($projection | split(",") | join(", ")))} end)')
+  curl -sf "$DYNAMODB_URL" \
+    --aws-sigv4 "aws:amz:us-east-1:dynamodb" --user local:local \
+    -H 'Content-Type: application/x-amz-json-1.0' \
+    -H 'X-Amz-Target: DynamoDB_20120810.Query' \
+    -d "$request" -o "$TMP/query.json" -w '%{size_download}'
+}
+
+app_bytes() {
+  local query="startTime=$(date -u -d "@$START" +%Y-%m-%dT%H:%M:%S)&endTime=$(date -u -d "@$END" +%Y-%m-%dT%H:%M:%S)"
+  curl -sf -H 'Accept-Encoding: identity' "$APP_URL/api/v1/weather/$STATION?$query${1:+&fields=$1}" \
+    -o /dev/null -w '%{size_download}'
+}
+
+report() {
+  local label=$1 full=$2 projected=$3
+  printf '%-22s full %8d B  projected %8d B  (%d%%)\n' "$label" "$full" "$projected" $(( projected * 100 / full ))
+  if (( projected >= full )); then
+    echo "FAIL: projected $label payload is not smaller" >&2
+    exit 1
+  fi
+}
+
+echo "=== $READINGS readings, fields=$FIELDS"
+full=$(dynamodb_bytes)
+full_capacity=$(jq '.ConsumedCapacity.CapacityUnits' "$TMP/query.json")
+projected=$(dynamodb_bytes "$FIELDS")
+projected_capacity=$(jq '.ConsumedCapacity.CapacityUnits' "$TMP/query.json")
+report "DynamoDB Query" "$full" "$projected"
+echo "read capacity units:   full $full_capacity  projected $projected_capacity (charged on item size either way)"
+report "GET /weather/{id}" "$(app_bytes)" "$(app_bytes "$FIELDS")"
@@ -0,0 +1,17 @@
+-- pgbench script: the same question answered by /api/v1/flights/query in a
+-- single statement (the SQL Hibernate generates for FlightSpecifications.matching).
+\set o random(1, 5)
+\set d random(1, 5)
+\set h random(0, 600)
+SELECT f.flight_id, f.flight_no, f.scheduled_departure, f.scheduled_arrival, f.status,
+       da.airport_name, aa.airport_name, ac.model
+FROM flights f
+JOIN airports da ON da.airport_code = f.departure_airport
+JOIN airports aa ON aa.airport_code = f.arrival_airport
+JOIN aircrafts ac ON ac.aircraft_code = f.aircraft_code
+WHERE f.departure_airport = (ARRAY['JFK', 'LAX', 'ORD', 'MIA', 'SFO'])[:o]
+  AND f.arrival_airport = (ARRAY['JFK', 'LAX', 'ORD', 'MIA', 'SFO'])[:d]
+  AND f.scheduled_departure >= NOW() - interval '30 days' + :h * interval '1 hour'
+  AND f.scheduled_departure <= NOW() - interval '30 days' + (:h + 24) * interval '1 hour'
+ORDER BY f.scheduled_departure, f.flight_id
+LIMIT 101;
@@ -0,0 +1,23 @@
+#!/bin/bash
+# Compares the single-filter flight queries with the composite query using
+# pgbench inside the pgair-db container.
+#   ./run.sh [flights] [clients] [seconds]
+set -euo pipefail
+
+FLIGHTS=${1:-1000000}
+CLIENTS=${2:-8}
+DURATION=${3:-30}
+CONTAINER=${CONTAINER:-pgair-db}
+DIR="$(cd "$(dirname "$0")" && pwd)"
+
+docker cp "$DIR/." "$CONTAINER:/tmp/bench"
+
+echo "Seeding $FLIGHTS flights..."
+docker exec "$CONTAINER" psql -q -U postgres -d pgair -v flights="$FLIGHTS" -f /tmp/bench/seed_flights.sql
+
+for script in single_filter composite_query; do
+  echo "=== $script ($CLIENTS clients, ${DURATION}s)"
+  docker exec "$CONTAINER" pgbench -U postgres -n -M prepared \
+    -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -r \
+    -f "/tmp/bench/$script.sql" pgair
+done
@@ -0,0 +1,25 @@
+-- Scales the flights table for benchmarking. Run after the init scripts:
+--   psql -U postgres -d pgair -v flights=1000000 -f seed_flights.sql
+\if :{?flights}
+\else
+\set flights 1000000
+\endif
+
+INSERT INTO flights
+    (flight_no, scheduled_departure, scheduled_arrival, departure_airport, arrival_airport, status, aircraft_code)
+SELECT
+    'BN' || lpad((n % 10000)::text, 4, '0'),
+    dep,
+    dep + interval '3 hours',
+    airports[1 + n % 5],
+    airports[1 + (n / 5 + 1 + n % 4) % 5],
+    statuses[1 + (n / 7) % 5],
+    aircraft[1 + (n / 3) % 5]
+FROM generate_series(1, :flights) AS n,
+     LATERAL (SELECT NOW() - interval '30 days' + (n * interval '1 minute') / 10 AS dep) d,
+     LATERAL (SELECT ARRAY['JFK', 'LAX', 'ORD', 'MIA', 'SFO'] AS airports,
+                     ARRAY['Scheduled', 'Delayed', 'Departed', 'Arrived', 'Cancelled'] AS statuses,
+                     ARRAY['773', '763', '320', '321', '319'] AS aircraft) c
+WHERE airports[1 + n % 5] <> airports[1 + (n / 5 + 1 + n % 4) % 5];
+
+ANALYZE flights;
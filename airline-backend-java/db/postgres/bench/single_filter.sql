@@ -0,0 +1,22 @@
+-- pgbench script: what clients do today for "origin X to destination Y in a
+-- window" - fetch /departure/{X} and /arrival/{Y} and intersect client-side.
+\set o random(1, 5)
+\set d random(1, 5)
+SELECT f.flight_id, f.flight_no, f.scheduled_departure, f.scheduled_arrival, f.status,
+       da.airport_name, aa.airport_name, ac.model
+FROM flights f
+JOIN airports da ON da.airport_code = f.departure_airport
+JOIN airports aa ON aa.airport_code = f.arrival_airport
+JOIN aircrafts ac ON ac.aircraft_code = f.aircraft_code
+WHERE f.departure_airport = (ARRAY['JFK', 'LAX', 'ORD', 'MIA', 'SFO'])[:o]
+ORDER BY f.scheduled_departure, f.flight_id
+LIMIT 1001;
+SELECT f.flight_id, f.flight_no, f.scheduled_departure, f.scheduled_arrival, f.status,
+       da.airport_name, aa.airport_name, ac.model
+FROM flights f
+JOIN airports da ON da.airport_code = f.departure_airport
+JOIN airports aa ON aa.airport_code = f.arrival_airport
+JOIN aircrafts ac ON ac.aircraft_code = f.aircraft_code
+WHERE f.arrival_airport = (ARRAY['JFK', 'LAX', 'ORD', 'MIA', 'SFO'])[:d]
+ORDER BY f.scheduled_departure, f.flight_id
+LIMIT 1001;
@@ -5,7 +5,8 @@ CREATE TABLE IF NOT EXISTS aircrafts (
     aircraft_code CHAR(3) PRIMARY KEY,
     model VARCHAR(50) NOT NULL,
     range INTEGER NOT NULL CHECK (range > 0),
-    seats_total INTEGER CHECK (seats_total > 0)
+    seats_total INTEGER CHECK (seats_total > 0),
+    version INTEGER NOT NULL DEFAULT 0
 );
 
 -- Airport table
@@ -29,6 +30,7 @@ CREATE TABLE IF NOT EXISTS flights (
     aircraft_code CHAR(3) NOT NULL REFERENCES aircrafts(aircraft_code),
     actual_departure TIMESTAMP NULL,
     actual_arrival TIMESTAMP NULL,
+    version INTEGER NOT NULL DEFAULT 0,
     CHECK (scheduled_arrival > scheduled_departure),
     CHECK (actual_arrival IS NULL OR actual_departure IS NOT NULL),
     CHECK (actual_arrival IS NULL OR actual_arrival > actual_departure)
@@ -60,9 +62,13 @@ CREATE TABLE IF NOT EXISTS ticket_flights (
 );
 
 -- Create indexes for better query performance
-CREATE INDEX IF NOT EXISTS flights_departure_airport_idx ON flights(departure_airport);
-CREATE INDEX IF NOT EXISTS flights_arrival_airport_idx ON flights(arrival_airport);
-CREATE INDEX IF NOT EXISTS flights_aircraft_code_idx ON flights(aircraft_code);
-CREATE INDEX IF NOT EXISTS flights_status_idx ON flights(status);
-CREATE INDEX IF NOT EXISTS flights_scheduled_departure_idx ON flights(scheduled_departure);
+-- Composite indexes match the flight query filters and end in the keyset
+-- sort order (scheduled_departure, flight_id), so each filter is an index
+-- range scan with no sort. Their leading column also serves single-column lookups.
+CREATE INDEX IF NOT EXISTS flights_departure_airport_sched_idx ON flights(departure_airport, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_arrival_airport_sched_idx ON flights(arrival_airport, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_route_sched_idx ON flights(departure_airport, arrival_airport, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_aircraft_code_sched_idx ON flights(aircraft_code, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_status_sched_idx ON flights(status, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_scheduled_departure_idx ON flights(scheduled_departure, flight_id);
 CREATE INDEX IF NOT EXISTS tickets_booking_ref_idx ON tickets(booking_ref);
@@ -0,0 +1,4 @@
+-- Runs after the sample data so the seeded flight ids stay 1..n.
+-- Hibernate's pooled optimizer reserves 50 flight ids per nextval; the
+-- increment must match allocationSize on Flight.flightId.
+ALTER SEQUENCE flights_flight_id_seq INCREMENT BY 50;
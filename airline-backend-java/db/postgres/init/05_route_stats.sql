@@ -0,0 +1,25 @@
+-- Precomputed per-route, per-day statistics for the /api/v1/stats endpoints.
+-- Refreshed by RouteStatsRefresher with REFRESH MATERIALIZED VIEW CONCURRENTLY,
+-- which needs the unique index below and keeps the view readable while it runs.
+-- A flight counts as on time when it left no more than 15 minutes late.
+CREATE MATERIALIZED VIEW IF NOT EXISTS route_daily_stats AS
+SELECT f.departure_airport,
+       f.arrival_airport,
+       f.scheduled_departure::date AS flight_date,
+       count(*) AS flights,
+       count(f.actual_departure) AS departed,
+       count(*) FILTER (WHERE f.actual_departure <= f.scheduled_departure + interval '15 minutes') AS on_time,
+       count(*) FILTER (WHERE f.status = 'Cancelled') AS cancelled,
+       coalesce(sum(s.tickets), 0) AS tickets,
+       coalesce(sum(s.revenue), 0)::numeric(14,2) AS revenue
+FROM flights f
+LEFT JOIN (
+    SELECT flight_id, count(*) AS tickets, sum(amount) AS revenue
+    FROM ticket_flights
+    GROUP BY flight_id
+) s ON s.flight_id = f.flight_id
+GROUP BY f.departure_airport, f.arrival_airport, f.scheduled_departure::date;
+
+CREATE UNIQUE INDEX IF NOT EXISTS route_daily_stats_route_date_idx
+    ON route_daily_stats(departure_airport, arrival_airport, flight_date);
+CREATE INDEX IF NOT EXISTS route_daily_stats_date_idx ON route_daily_stats(flight_date);
@@ -0,0 +1,5 @@
+-- Optimistic-lock version columns for databases created before 02_schema.sql
+-- declared them. Safe to run on any schema: columns that exist are left alone,
+-- and existing rows start at version 0.
+ALTER TABLE aircrafts ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE flights ADD COLUMN IF NOT EXISTS version INTEGER NOT NULL DEFAULT 0;
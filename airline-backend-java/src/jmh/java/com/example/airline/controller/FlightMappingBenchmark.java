@@ -0,0 +1,75 @@
+package com.example.airline.controller;
+
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.model.Aircraft;
+import com.example.airline.model.Airport;
+import com.example.airline.model.Flight;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of the entity/DTO conversions on the flight write paths, next to
+ * the all-args constructor Hibernate calls for the read projections.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightMappingBenchmark {
+
+    private Flight flight;
+    private FlightDTO dto;
+
+    @Setup
+    public void setUp() {
+        Airport origin = new Airport();
+        origin.setAirportCode("JFK");
+        origin.setAirportName("John F Kennedy International Airport");
+        Airport destination = new Airport();
+        destination.setAirportCode("LAX");
+        destination.setAirportName("Los Angeles International Airport");
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode("773");
+        aircraft.setModel("Boeing 777-300");
+
+        LocalDateTime departure = LocalDateTime.of(2024, 3, 1, 8, 30);
+        flight = new Flight();
+        flight.setFlightId(1);
+        flight.setFlightNo("AA1001");
+        flight.setScheduledDeparture(departure);
+        flight.setScheduledArrival(departure.plusHours(5));
+        flight.setStatus("Arrived");
+        flight.setActualDeparture(departure.plusMinutes(4));
+        flight.setActualArrival(departure.plusHours(5).plusMinutes(10));
+        flight.setDepartureAirport(origin);
+        flight.setArrivalAirport(destination);
+        flight.setAircraft(aircraft);
+
+        dto = FlightController.convertToDTO(flight);
+    }
+
+    @Benchmark
+    public FlightDTO convertToDTO() {
+        return FlightController.convertToDTO(flight);
+    }
+
+    @Benchmark
+    public Flight convertToEntity() {
+        return FlightController.convertToEntity(dto);
+    }
+
+    @Benchmark
+    public FlightDTO projectionConstructor() {
+        return new FlightDTO(
+            flight.getFlightId(), flight.getFlightNo(), flight.getScheduledDeparture(), flight.getScheduledArrival(),
+            flight.getDepartureAirport().getAirportCode(), flight.getArrivalAirport().getAirportCode(),
+            flight.getStatus(), flight.getAircraft().getAircraftCode(),
+            flight.getActualDeparture(), flight.getActualArrival(),
+            flight.getDepartureAirport().getAirportName(), flight.getArrivalAirport().getAirportName(),
+            flight.getAircraft().getModel());
+    }
+}
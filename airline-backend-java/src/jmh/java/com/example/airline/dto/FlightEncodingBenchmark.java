@@ -0,0 +1,173 @@
+package com.example.airline.dto;
+
+import com.example.airline.model.Weather;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bytes on the wire and CPU time of the bulk payloads in each response
+ * encoding: a full page of {@link FlightDTO}s and a day of hourly
+ * {@link Weather} readings for 24 stations. {@code gzip} adds the cost of
+ * the compression Tomcat applies to large responses, and of undoing it.
+ * <p>
+ * Mappers are set up like {@code BinaryFormatConfig}: JSON writes ISO dates,
+ * Smile and CBOR write them as numbers. JMH only measures time, so the
+ * encoded sizes are reported alongside as the {@code bytes} and
+ * {@code gzippedBytes} counters of {@link Sizes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightEncodingBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int STATIONS = 24;
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private String format;
+
+    @Param({"flights", "weather"})
+    private String payload;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<?> values;
+    private byte[] encoded;
+    private long bytes;
+    private long gzippedBytes;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Sizes {
+        public long bytes;
+        public long gzippedBytes;
+
+        // JMH doesn't reset counters, so each iteration reports the sizes once
+        @Setup(Level.Iteration)
+        public void setUp(FlightEncodingBenchmark benchmark) {
+            bytes = benchmark.bytes;
+            gzippedBytes = benchmark.gzippedBytes;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = mapper(format);
+        Class<?> type = payload.equals("flights") ? FlightDTO.class : Weather.class;
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, type));
+        reader = mapper.readerForListOf(type);
+        values = payload.equals("flights") ? flights() : weather();
+        byte[] bytes = writer.writeValueAsBytes(values);
+        byte[] gzipped = gzip(bytes);
+        encoded = gzip ? gzipped : bytes;
+        this.bytes = bytes.length;
+        this.gzippedBytes = gzipped.length;
+    }
+
+    @Benchmark
+    public byte[] encode(Sizes sizes) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(values);
+        return gzip ? gzip(bytes) : bytes;
+    }
+
+    @Benchmark
+    public List<?> decode(Sizes sizes) throws IOException {
+        return gzip ? reader.readValue(new GZIPInputStream(new ByteArrayInputStream(encoded)))
+            : reader.readValue(encoded);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        switch (format) {
+            case "SMILE":
+                SmileFactory factory = SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build();
+                return SmileMapper.builder(factory)
+                    .findAndAddModules()
+                    .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "CBOR":
+                return CBORMapper.builder()
+                    .findAndAddModules()
+                    .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default:
+                return JsonMapper.builder()
+                    .findAndAddModules()
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<FlightDTO> flights() {
+        String[][] routes = {
+            {"JFK", "LAX", "John F Kennedy International Airport", "Los Angeles International Airport"},
+            {"ORD", "SFO", "Chicago O'Hare International Airport", "San Francisco International Airport"},
+            {"MIA", "JFK", "Miami International Airport", "John F Kennedy International Airport"}};
+        String[] statuses = {"Scheduled", "Scheduled", "Delayed", "Departed"};
+        LocalDateTime departure = LocalDateTime.of(2024, 3, 1, 8, 30);
+        List<FlightDTO> flights = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            String[] route = routes[i % routes.length];
+            LocalDateTime scheduled = departure.plusMinutes(i);
+            String status = statuses[i % statuses.length];
+            flights.add(new FlightDTO(i + 1, String.format("AA%04d", i), scheduled, scheduled.plusHours(5),
+                route[0], route[1], status, "773",
+                status.equals("Departed") ? scheduled.plusMinutes(7) : null, null,
+                route[2], route[3], "Boeing 777-300"));
+        }
+        return flights;
+    }
+
+    private static List<Weather> weather() {
+        String[] conditions = {"Clear", "Cloudy", "Rain"};
+        long start = 1709251200L;
+        List<Weather> readings = new ArrayList<>(STATIONS * 24);
+        for (int station = 0; station < STATIONS; station++) {
+            for (int hour = 0; hour < 24; hour++) {
+                Weather weather = new Weather();
+                weather.setLocationId(String.format("K%03d", station));
+                weather.setTimestamp(start + hour * 3600L);
+                weather.setTemperature(50.0 + (station * 7 + hour) % 40 + 0.5);
+                weather.setHumidity(40.0 + (station + hour * 3) % 50);
+                weather.setConditions(conditions[(station + hour) % conditions.length]);
+                weather.setWindSpeed(5.0 + (station * hour) % 20 + 0.25);
+                weather.setCoordinates("40.6413,-73.7781");
+                readings.add(weather);
+            }
+        }
+        return readings;
+    }
+}
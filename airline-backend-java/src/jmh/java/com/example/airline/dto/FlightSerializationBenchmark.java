@@ -0,0 +1,71 @@
+package com.example.airline.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the flight read responses: a single {@link FlightDTO}, a full
+ * page as returned by the list endpoints, and the same page read back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter pageWriter;
+    private FlightDTO flight;
+    private List<FlightDTO> page;
+    private byte[] pageJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // Same shape as the Boot-configured mapper: java.time as ISO strings
+        objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        pageWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, FlightDTO.class));
+
+        LocalDateTime departure = LocalDateTime.of(2024, 3, 1, 8, 30);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            LocalDateTime scheduled = departure.plusMinutes(i);
+            page.add(new FlightDTO(i + 1, String.format("AA%04d", i % 10000), scheduled, scheduled.plusHours(5),
+                "JFK", "LAX", "Scheduled", "773", null, null,
+                "John F Kennedy International Airport", "Los Angeles International Airport", "Boeing 777-300"));
+        }
+        flight = page.get(0);
+        pageJson = pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeFlight() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(flight);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<FlightDTO> deserializePage() throws Exception {
+        return objectMapper.readerForListOf(FlightDTO.class).readValue(pageJson);
+    }
+}
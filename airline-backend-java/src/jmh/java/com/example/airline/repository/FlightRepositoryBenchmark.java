@@ -0,0 +1,151 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightQuery;
+import com.example.airline.model.Flight;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flight read paths against the H2 test database: the 03_sample_data port from
+ * {@code db/h2/data.sql}, scaled up to {@code flights} rows spread a minute apart
+ * around the current time. Only the JPA slice of the application is started so
+ * the numbers don't depend on DynamoDB being reachable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FlightRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int SEED_CHUNK = 100_000;
+
+    // Round-robins airports, routes and aircraft so every filter selects a fixed share of the table
+    private static final String SCALE_FLIGHTS_SQL = "INSERT INTO flights "
+            + "(flight_no, scheduled_departure, scheduled_arrival, departure_airport, arrival_airport, status, aircraft_code) "
+            + "SELECT 'BN' || LPAD(CAST(MOD(X, 10000) AS VARCHAR), 4, '0'), "
+            + "DATEADD(MINUTE, X - CAST(? AS BIGINT), LOCALTIMESTAMP), "
+            + "DATEADD(MINUTE, X - CAST(? AS BIGINT) + 180, LOCALTIMESTAMP), "
+            + airportCase("MOD(X, 5)") + ", "
+            + airportCase("MOD(X + 1 + MOD(X / 5, 4), 5)") + ", "
+            + "CASE WHEN MOD(X, 50) = 0 THEN 'Delayed' WHEN X < CAST(? AS BIGINT) THEN 'Arrived' ELSE 'Scheduled' END, "
+            + "CASE MOD(X / 5, 5) WHEN 0 THEN '773' WHEN 1 THEN '763' WHEN 2 THEN '320' WHEN 3 THEN '321' ELSE '319' END "
+            + "FROM SYSTEM_RANGE(CAST(? AS BIGINT), CAST(? AS BIGINT))";
+
+    @Param({"1000000"})
+    private int flights;
+
+    private ConfigurableApplicationContext context;
+    private FlightRepository flightRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private LocalDateTime now;
+    private Integer probeId;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Flight.class)
+    @EnableJpaRepositories(basePackageClasses = FlightRepository.class)
+    static class BenchmarkConfiguration {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=false")
+            .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long half = flights / 2;
+        for (long start = 1; start <= flights; start += SEED_CHUNK) {
+            long end = Math.min(start + SEED_CHUNK - 1, flights);
+            jdbcTemplate.update(SCALE_FLIGHTS_SQL, half, half, half, start, end);
+        }
+        jdbcTemplate.execute("ANALYZE");
+
+        flightRepository = context.getBean(FlightRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        now = LocalDateTime.now();
+        probeId = jdbcTemplate.queryForObject("SELECT MAX(flight_id) / 2 FROM flights", Integer.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<FlightDTO> findFlightDTOById() {
+        return flightRepository.findFlightDTOById(probeId);
+    }
+
+    @Benchmark
+    public List<FlightDTO> firstPage() {
+        return flightRepository.findFlightDTOs(null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FlightDTO> firstPageByDeparture() {
+        return flightRepository.findFlightDTOs(FlightSpecifications.departsFrom("JFK"), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FlightDTO> middlePageByDeparture() {
+        return flightRepository.findFlightDTOs(
+            FlightSpecifications.departsFrom("JFK"), new FlightCursor(now, 0), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FlightDTO> compositeQuery() {
+        FlightQuery query = new FlightQuery();
+        query.setOrigin("JFK");
+        query.setDestination("LAX");
+        query.setFrom(now);
+        query.setTo(now.plusDays(7));
+        query.setStatus("Scheduled");
+        return flightRepository.findFlightDTOs(FlightSpecifications.matching(query), null, PAGE_SIZE);
+    }
+
+    /**
+     * The pre-projection read path: load entities, then walk the lazy
+     * airport/aircraft associations the way the old controller mapping did.
+     */
+    @Benchmark
+    public Integer entitiesInDateRange() {
+        return readOnlyTransaction.execute(status -> {
+            int touched = 0;
+            for (Flight flight : flightRepository.findFlightsInDateRange(now, now.plusHours(2))) {
+                touched += flight.getDepartureAirport().getAirportName().length()
+                    + flight.getArrivalAirport().getAirportName().length()
+                    + flight.getAircraft().getModel().length();
+            }
+            return touched;
+        });
+    }
+
+    private static String airportCase(String index) {
+        return "CASE " + index + " WHEN 0 THEN 'JFK' WHEN 1 THEN 'LAX' WHEN 2 THEN 'ORD' WHEN 3 THEN 'MIA' ELSE 'SFO' END";
+    }
+}
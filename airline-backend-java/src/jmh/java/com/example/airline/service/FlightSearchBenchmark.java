@@ -0,0 +1,123 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.model.Flight;
+import com.example.airline.repository.FlightRepository;
+import com.example.airline.repository.FlightSpecifications;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The /search hot path: overlapping "next N hours" windows starting within the
+ * coming hour, answered by the keyset query and by {@link FlightWindowIndex}.
+ * {@code flights} rows are spread a minute apart around the current time, so
+ * the index holds the two-day horizon (about 2,900 flights) out of the table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FlightSearchBenchmark {
+
+    // limit + 1, as FlightService asks for
+    private static final int PAGE_ROWS = FlightService.DEFAULT_PAGE_SIZE + 1;
+
+    private static final String SEED_FLIGHTS_SQL = "INSERT INTO flights "
+            + "(flight_no, scheduled_departure, scheduled_arrival, departure_airport, arrival_airport, status, aircraft_code) "
+            + "SELECT 'BN' || LPAD(CAST(MOD(X, 10000) AS VARCHAR), 4, '0'), "
+            + "DATEADD(MINUTE, X - CAST(? AS BIGINT), LOCALTIMESTAMP), "
+            + "DATEADD(MINUTE, X - CAST(? AS BIGINT) + 180, LOCALTIMESTAMP), "
+            + "CASE MOD(X, 5) WHEN 0 THEN 'JFK' WHEN 1 THEN 'LAX' WHEN 2 THEN 'ORD' WHEN 3 THEN 'MIA' ELSE 'SFO' END, "
+            + "CASE MOD(X + 1, 5) WHEN 0 THEN 'JFK' WHEN 1 THEN 'LAX' WHEN 2 THEN 'ORD' WHEN 3 THEN 'MIA' ELSE 'SFO' END, "
+            + "'Scheduled', "
+            + "CASE MOD(X / 5, 5) WHEN 0 THEN '773' WHEN 1 THEN '763' WHEN 2 THEN '320' WHEN 3 THEN '321' ELSE '319' END "
+            + "FROM SYSTEM_RANGE(1, CAST(? AS BIGINT))";
+
+    @Param({"200000"})
+    private int flights;
+
+    // Width of the searched window
+    @Param({"2", "12"})
+    private int windowHours;
+
+    private ConfigurableApplicationContext context;
+    private FlightRepository flightRepository;
+    private FlightWindowIndex index;
+    private LocalDateTime now;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Flight.class)
+    @EnableJpaRepositories(basePackageClasses = FlightRepository.class)
+    @Import(FlightWindowIndex.class)
+    static class BenchmarkConfiguration {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=false",
+                // The benchmark drives refreshes itself
+                "flight-index.refresh-interval=PT1H")
+            .run();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(SEED_FLIGHTS_SQL, flights / 2, flights / 2, flights);
+        jdbcTemplate.execute("ANALYZE");
+
+        flightRepository = context.getBean(FlightRepository.class);
+        index = context.getBean(FlightWindowIndex.class);
+        index.refresh();
+        now = LocalDateTime.now();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<FlightDTO> database() {
+        LocalDateTime start = windowStart();
+        return flightRepository.findFlightDTOs(
+            FlightSpecifications.departsBetween(start, start.plusHours(windowHours)), null, PAGE_ROWS);
+    }
+
+    @Benchmark
+    public List<FlightDTO> index() {
+        LocalDateTime start = windowStart();
+        return index.find(start, start.plusHours(windowHours), null, PAGE_ROWS).orElseThrow();
+    }
+
+    /**
+     * The periodic delta poll with nothing changed: one (id, version) scan of
+     * the horizon.
+     */
+    @Benchmark
+    public void refresh() {
+        index.refresh();
+    }
+
+    private LocalDateTime windowStart() {
+        return now.plusMinutes(ThreadLocalRandom.current().nextInt(60));
+    }
+}
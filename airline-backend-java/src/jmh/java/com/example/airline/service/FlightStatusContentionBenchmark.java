@@ -0,0 +1,123 @@
+package com.example.airline.service;
+
+import com.example.airline.exception.FlightStatusConflictException;
+import com.example.airline.model.Flight;
+import com.example.airline.repository.FlightRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Eight threads flipping the status of a few hot flights between Scheduled
+ * and Delayed, through the version-checked read-modify-write path and through
+ * the single-statement conditional UPDATE. {@code updated} and
+ * {@code conflicts} are reported per second alongside the raw call rate.
+ * <p>
+ * Runs against the H2 test database; point {@code spring.datasource.*} at
+ * Postgres for numbers that reflect its row locking.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class FlightStatusContentionBenchmark {
+
+    private static final String[] STATUSES = {"Scheduled", "Delayed"};
+
+    // Number of flights the threads are spread across; 1 is worst-case contention
+    @Param({"1", "4"})
+    private int hotFlights;
+
+    private ConfigurableApplicationContext context;
+    private FlightService flightService;
+    private int firstFlightId;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Flight.class)
+    @EnableJpaRepositories(basePackageClasses = FlightRepository.class)
+    @Import({FlightService.class, AirportService.class, AircraftService.class, FlightWindowIndex.class})
+    static class BenchmarkConfiguration {
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long updated;
+        public long conflicts;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=false")
+            .run();
+        flightService = context.getBean(FlightService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        firstFlightId = jdbcTemplate.queryForObject("SELECT MIN(flight_id) FROM flights", Integer.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetStatuses() {
+        context.getBean(JdbcTemplate.class).update(
+            "UPDATE flights SET status = 'Scheduled' WHERE flight_id < ?", firstFlightId + hotFlights);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * {@code findById}, {@code setStatus}, flush with {@code WHERE version = ?}.
+     * A conflict here is an update that would previously have been lost.
+     */
+    @Benchmark
+    public void readModifyWrite(Outcome outcome) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            flightService.updateFlightStatus(hotFlight(random), STATUSES[random.nextInt(2)]);
+            outcome.updated++;
+        } catch (OptimisticLockingFailureException e) {
+            outcome.conflicts++;
+        }
+    }
+
+    /**
+     * One {@code UPDATE ... WHERE status = ?}; a conflict means another thread
+     * already made the transition.
+     */
+    @Benchmark
+    public void conditionalUpdate(Outcome outcome) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(2);
+        try {
+            flightService.transitionFlightStatus(hotFlight(random), STATUSES[from], STATUSES[1 - from]);
+            outcome.updated++;
+        } catch (FlightStatusConflictException e) {
+            outcome.conflicts++;
+        }
+    }
+
+    private int hotFlight(ThreadLocalRandom random) {
+        return firstFlightId + random.nextInt(hotFlights);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.RouteItineraryDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection searches on a synthetic week of schedule: {@code legs} flights
+ * between 200 airports, half of them touching one of 20 hubs, departing
+ * uniformly over seven days with 1-6 hour block times. Each search picks a
+ * random origin, destination and departure on day one. {@code build} times the
+ * full rebuild a batch of flight changes triggers.
+ * <p>
+ * The schedule is seeded, so runs are comparable across commits.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class RouteSearchBenchmark {
+
+    private static final int AIRPORTS = 200;
+    private static final int HUBS = 20;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final Duration CONNECTION = Duration.ofMinutes(45);
+    private static final Duration MAX_TRIP = Duration.ofDays(1);
+    private static final String[] CODES = new String[AIRPORTS];
+
+    static {
+        for (int i = 0; i < AIRPORTS; i++) {
+            CODES[i] = String.format("A%03d", i);
+        }
+    }
+
+    @Param({"50000"})
+    private int legs;
+
+    @Param({"0", "1", "2"})
+    private int maxConnections;
+
+    private List<RouteGraph.Leg> schedule;
+    private RouteGraph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        schedule = new ArrayList<>(legs);
+        for (int i = 0; i < legs; i++) {
+            int from = random.nextBoolean() ? random.nextInt(HUBS) : random.nextInt(AIRPORTS);
+            int to = random.nextInt(AIRPORTS);
+            if (to == from) {
+                to = (to + 1) % AIRPORTS;
+            }
+            LocalDateTime departure = START.plusMinutes(random.nextInt(7 * 24 * 60));
+            schedule.add(new RouteGraph.Leg(i, "BN" + i, airport(from), airport(to),
+                departure, departure.plusMinutes(60 + random.nextInt(300))));
+        }
+        graph = RouteGraph.build(schedule, START, START.plusDays(7));
+    }
+
+    @Benchmark
+    public List<RouteItineraryDTO> search() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(AIRPORTS);
+        int to = (from + 1 + random.nextInt(AIRPORTS - 1)) % AIRPORTS;
+        return graph.search(airport(from), airport(to), START.plusMinutes(random.nextInt(24 * 60)),
+            maxConnections + 1, CONNECTION, MAX_TRIP);
+    }
+
+    @Benchmark
+    public RouteGraph build() {
+        return RouteGraph.build(schedule, START, START.plusDays(7));
+    }
+
+    private static String airport(int index) {
+        return CODES[index];
+    }
+}
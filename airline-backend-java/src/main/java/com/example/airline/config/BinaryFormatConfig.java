@@ -0,0 +1,59 @@
+package com.example.airline.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Smile and CBOR encodings of the JSON responses, chosen by the
+ * {@code Accept} header; JSON stays the default. Both formats use Boot's
+ * Jackson setup but write java.time values as numbers rather than ISO
+ * strings. Smile also back-references repeated short strings such as
+ * airport codes and statuses.
+ * <p>
+ * The mappers are not beans, so the JSON {@link ObjectMapper} is still Boot's.
+ * Responses negotiated this way carry a {@link #weakETag weak ETag}.
+ */
+@Configuration
+public class BinaryFormatConfig {
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    /**
+     * The three encodings of a version are equivalent but not byte-identical,
+     * so its ETag must be weak; If-None-Match still compares it across formats.
+     */
+    public static String weakETag(Object version) {
+        return "W/\"" + version + "\"";
+    }
+
+    // Boot's HttpMessageConverters puts these where the default converters of the same type sit, after JSON
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder, factory));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder, new CBORFactory()));
+    }
+
+    // The builder bean is prototype-scoped, so each converter gets its own
+    private static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+            .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.airline.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caches are defined in application.yml (spring.cache.*). The caching advice
+ * runs outside the transactional advice so evictions happen after commit and
+ * cache hits never open a transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String AIRPORTS = "airports";
+    public static final String AIRCRAFT = "aircraft";
+    public static final String AIRCRAFT_LIST = "aircraftList";
+}
@@ -1,19 +1,34 @@
 package com.example.airline.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
 public class DynamoDBConfig {
 
+    private final Environment environment;
+
     @Value("${aws.dynamodb.endpoint}")
     private String dynamoDbEndpoint;
 
@@ -26,13 +41,25 @@ public class DynamoDBConfig {
     @Value("${aws.region}")
     private String region;
 
+    @Value("${aws.dynamodb.batch-write.parallelism:4}")
+    private int batchWriteParallelism;
+
+    @Value("${aws.dynamodb.read.parallelism:50}")
+    private int readParallelism;
+
+    public DynamoDBConfig(Environment environment) {
+        this.environment = environment;
+    }
+
     @Bean
-    public DynamoDbClient dynamoDbClient() {
+    public DynamoDbClient dynamoDbClient(MeterRegistry meterRegistry) {
         return DynamoDbClient.builder()
                 .endpointOverride(URI.create(dynamoDbEndpoint))
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
                 .region(Region.of(region))
+                .overrideConfiguration(config -> config.addMetricPublisher(
+                        new DynamoDBMetricPublisher(meterRegistry, "sync")))
                 .build();
     }
 
@@ -42,4 +69,64 @@ public class DynamoDBConfig {
                 .dynamoDbClient(dynamoDbClient)
                 .build();
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "aws.dynamodb.async.enabled", havingValue = "true")
+    public DynamoDbAsyncClient dynamoDbAsyncClient(
+            @Value("${aws.dynamodb.async.max-concurrency:100}") int maxConcurrency,
+            MeterRegistry meterRegistry) {
+        return DynamoDbAsyncClient.builder()
+                .endpointOverride(URI.create(dynamoDbEndpoint))
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create(accessKeyId, secretAccessKey)))
+                .region(Region.of(region))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency))
+                .overrideConfiguration(config -> config.addMetricPublisher(
+                        new DynamoDBMetricPublisher(meterRegistry, "async")))
+                .asyncConfiguration(config -> {
+                    // Netty keeps its event loop; only the completion stages move to virtual threads
+                    if (virtualThreads()) {
+                        config.advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR,
+                                new VirtualThreadTaskExecutor("dynamodb-async-"));
+                    }
+                })
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "aws.dynamodb.async.enabled", havingValue = "true")
+    public DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient(DynamoDbAsyncClient dynamoDbAsyncClient) {
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbAsyncClient)
+                .build();
+    }
+
+    /**
+     * Bounds how many BatchWriteItem chunks are in flight at once.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService weatherWriteExecutor() {
+        return Executors.newFixedThreadPool(batchWriteParallelism, threadFactory("weather-batch-"));
+    }
+
+    /**
+     * Runs blocking per-location weather lookups concurrently when the async
+     * client is disabled. Sized to the sync client's default connection pool (50),
+     * which stays the limit even when the workers are virtual threads.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService weatherReadExecutor() {
+        return Executors.newFixedThreadPool(readParallelism, threadFactory("weather-read-"));
+    }
+
+    private boolean virtualThreads() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    private ThreadFactory threadFactory(String prefix) {
+        return virtualThreads()
+                ? new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory()
+                : new CustomizableThreadFactory(prefix);
+    }
 }
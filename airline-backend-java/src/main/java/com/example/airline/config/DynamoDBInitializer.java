@@ -1,5 +1,9 @@
 package com.example.airline.config;
 
+import com.example.airline.model.BucketedWeather;
+import com.example.airline.model.Weather;
+import com.example.airline.repository.WeatherRepository;
+import com.example.airline.repository.WeatherRollupRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -10,27 +14,40 @@ import software.amazon.awssdk.services.dynamodb.model.*;
 
 import java.net.URI;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Component
 public class DynamoDBInitializer {
+    private static final int MAX_BATCH_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
 
     private final DynamoDbClient dynamoDbClient;
     private final Random random = new Random();
+    private final boolean bucketed;
 
-    public DynamoDBInitializer(@Value("${aws.dynamodb.endpoint}") String dynamoDbEndpoint) {
+    public DynamoDBInitializer(@Value("${aws.dynamodb.endpoint}") String dynamoDbEndpoint,
+                               @Value("${weather.storage.bucketed:false}") boolean bucketed) {
         this.dynamoDbClient = DynamoDbClient.builder()
                 .endpointOverride(URI.create(dynamoDbEndpoint))
                 .build();
+        this.bucketed = bucketed;
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void initializeDynamoDB() {
         try {
-            createWeatherTable();
+            createTable(WeatherRepository.WEATHER_TABLE, "location_id", "timestamp");
+            createTable(WeatherRepository.BUCKETED_TABLE, "bucket", "timestamp");
+            createTable(WeatherRollupRepository.ROLLUP_TABLE, "series", "period_start");
+            enableTimeToLive(WeatherRepository.WEATHER_TABLE);
+            enableTimeToLive(WeatherRepository.BUCKETED_TABLE);
             insertSampleData();
             log.info("DynamoDB initialization completed successfully");
         } catch (Exception e) {
@@ -38,36 +55,35 @@ public class DynamoDBInitializer {
         }
     }
 
-    private void createWeatherTable() {
-        String tableName = "Weather";
-
+    // String partition key, numeric sort key
+    private void createTable(String tableName, String partitionKey, String sortKey) {
         try {
             dynamoDbClient.describeTable(DescribeTableRequest.builder()
                     .tableName(tableName)
                     .build());
-            log.info("Weather table already exists");
+            log.info("{} table already exists", tableName);
         } catch (ResourceNotFoundException e) {
-            log.info("Creating Weather table...");
+            log.info("Creating {} table...", tableName);
             
             CreateTableRequest request = CreateTableRequest.builder()
                     .tableName(tableName)
                     .keySchema(
                             KeySchemaElement.builder()
-                                    .attributeName("location_id")
+                                    .attributeName(partitionKey)
                                     .keyType(KeyType.HASH)
                                     .build(),
                             KeySchemaElement.builder()
-                                    .attributeName("timestamp")
+                                    .attributeName(sortKey)
                                     .keyType(KeyType.RANGE)
                                     .build()
                     )
                     .attributeDefinitions(
                             AttributeDefinition.builder()
-                                    .attributeName("location_id")
+                                    .attributeName(partitionKey)
                                     .attributeType(ScalarAttributeType.S)
                                     .build(),
                             AttributeDefinition.builder()
-                                    .attributeName("timestamp")
+                                    .attributeName(sortKey)
                                     .attributeType(ScalarAttributeType.N)
                                     .build()
                     )
@@ -77,21 +93,46 @@ public class DynamoDBInitializer {
             dynamoDbClient.createTable(request);
             
             // Wait for table to become active
-            log.info("Waiting for Weather table to become active...");
+            log.info("Waiting for {} table to become active...", tableName);
             dynamoDbClient.waiter().waitUntilTableExists(DescribeTableRequest.builder()
                     .tableName(tableName)
                     .build());
-            log.info("Weather table is now active");
+            log.info("{} table is now active", tableName);
+        }
+    }
+
+    // Readings carry their own expiry (see WeatherService); DynamoDB deletes them lazily after it passes
+    private void enableTimeToLive(String tableName) {
+        TimeToLiveStatus status = dynamoDbClient.describeTimeToLive(DescribeTimeToLiveRequest.builder()
+                        .tableName(tableName)
+                        .build())
+                .timeToLiveDescription()
+                .timeToLiveStatus();
+        if (status == TimeToLiveStatus.ENABLED || status == TimeToLiveStatus.ENABLING) {
+            log.info("TTL already enabled on {} table", tableName);
+            return;
         }
+        dynamoDbClient.updateTimeToLive(UpdateTimeToLiveRequest.builder()
+                .tableName(tableName)
+                .timeToLiveSpecification(TimeToLiveSpecification.builder()
+                        .attributeName(Weather.EXPIRES_AT)
+                        .enabled(true)
+                        .build())
+                .build());
+        log.info("Enabled TTL on {} table ({})", tableName, Weather.EXPIRES_AT);
     }
 
     private void insertSampleData() {
         String[] airports = {"JFK", "LAX", "ORD", "MIA", "SFO"};
         long now = Instant.now().getEpochSecond();
 
+        List<WriteRequest> writes = new ArrayList<>();
         for (String airport : airports) {
             Map<String, AttributeValue> item = new HashMap<>();
             item.put("location_id", AttributeValue.builder().s(airport).build());
+            if (bucketed) {
+                item.put("bucket", AttributeValue.builder().s(BucketedWeather.bucketOf(airport, now)).build());
+            }
             item.put("timestamp", AttributeValue.builder().n(String.valueOf(now)).build());
             item.put("temperature", AttributeValue.builder().n(String.valueOf(60 + random.nextInt(30))).build());
             item.put("humidity", AttributeValue.builder().n(String.valueOf(50 + random.nextInt(40))).build());
@@ -99,13 +140,40 @@ public class DynamoDBInitializer {
             item.put("windSpeed", AttributeValue.builder().n(String.valueOf(5 + random.nextInt(20))).build());
             item.put("coordinates", AttributeValue.builder().s(getAirportCoordinates(airport)).build());
 
-            PutItemRequest request = PutItemRequest.builder()
-                    .tableName("Weather")
-                    .item(item)
-                    .build();
+            writes.add(WriteRequest.builder()
+                    .putRequest(PutRequest.builder().item(item).build())
+                    .build());
+        }
 
-            dynamoDbClient.putItem(request);
-            log.info("Inserted weather data for airport: {}", airport);
+        // All sample airports fit in a single BatchWriteItem call (limit 25)
+        Map<String, List<WriteRequest>> pending = Map.of(bucketed ? WeatherRepository.BUCKETED_TABLE : WeatherRepository.WEATHER_TABLE, writes);
+        for (int attempt = 0; attempt < MAX_BATCH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            // Unprocessed items mean the table is throttling; retrying at once would only add load
+            if (attempt > 0 && !backOff(attempt)) {
+                break;
+            }
+            BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                    .requestItems(pending)
+                    .build());
+            pending = response.unprocessedItems();
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Sample weather data left {} items unwritten after {} attempts",
+                    pending.values().stream().mapToInt(List::size).sum(), MAX_BATCH_ATTEMPTS);
+            return;
+        }
+        log.info("Inserted weather data for airports: {}", String.join(", ", airports));
+    }
+
+    // Full jitter: a random wait up to a ceiling that doubles per attempt
+    private boolean backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         }
     }
 
@@ -0,0 +1,80 @@
+package com.example.airline.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Records the AWS SDK's per-call metrics in Micrometer:
+ * <ul>
+ *   <li>{@code dynamodb.api.call}: end-to-end call time including retries, by operation and outcome</li>
+ *   <li>{@code dynamodb.api.call.retries}: retries, by operation</li>
+ *   <li>{@code dynamodb.http.concurrency.acquire}: time spent waiting for an HTTP connection,
+ *       which grows when the client's connection pool is saturated</li>
+ * </ul>
+ */
+public class DynamoDBMetricPublisher implements MetricPublisher {
+
+    private final MeterRegistry meterRegistry;
+    private final String client;
+
+    public DynamoDBMetricPublisher(MeterRegistry meterRegistry, String client) {
+        this.meterRegistry = meterRegistry;
+        this.client = client;
+    }
+
+    @Override
+    public void publish(MetricCollection apiCall) {
+        String operation = first(apiCall, CoreMetric.OPERATION_NAME, "unknown");
+        Tags tags = Tags.of("client", client, "operation", operation);
+
+        Duration duration = first(apiCall, CoreMetric.API_CALL_DURATION, null);
+        if (duration != null) {
+            Timer.builder("dynamodb.api.call")
+                .description("DynamoDB API call duration including retries")
+                .tags(tags)
+                .tag("successful", String.valueOf(first(apiCall, CoreMetric.API_CALL_SUCCESSFUL, false)))
+                .register(meterRegistry)
+                .record(duration);
+        }
+
+        Integer retries = first(apiCall, CoreMetric.RETRY_COUNT, 0);
+        if (retries > 0) {
+            Counter.builder("dynamodb.api.call.retries")
+                .tags(tags)
+                .register(meterRegistry)
+                .increment(retries);
+        }
+
+        apiCall.childrenWithName("ApiCallAttempt")
+            .flatMap(attempt -> attempt.childrenWithName("HttpClient"))
+            .forEach(http -> {
+                Duration acquire = first(http, HttpMetric.CONCURRENCY_ACQUIRE_DURATION, null);
+                if (acquire != null) {
+                    Timer.builder("dynamodb.http.concurrency.acquire")
+                        .description("Time waiting for a DynamoDB HTTP connection")
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .record(acquire);
+                }
+            });
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static <T> T first(MetricCollection collection, SdkMetric<T> metric, T defaultValue) {
+        List<T> values = collection.metricValues(metric);
+        return values.isEmpty() ? defaultValue : values.get(0);
+    }
+}
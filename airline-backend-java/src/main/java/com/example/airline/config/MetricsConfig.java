@@ -0,0 +1,21 @@
+package com.example.airline.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Timed} on beans that Boot doesn't instrument on its own (the
+ * DynamoDB weather repositories). Controllers and Spring Data repositories are
+ * timed by Boot as {@code http.server.requests} and
+ * {@code spring.data.repository.invocations}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.airline.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets a client that has just written (e.g. {@code PATCH /flights/{id}/status})
+ * read its own write by sending {@code X-Read-Consistency: strong}; all reads
+ * for that request then go to the primary instead of a possibly lagging replica.
+ */
+public class ReadConsistencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Read-Consistency";
+    public static final String STRONG = "strong";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!STRONG.equalsIgnoreCase(request.getHeader(HEADER))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean previous = ReplicaRoutingDataSource.requirePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.airline.config;
+
+import com.example.airline.model.Aircraft;
+import com.example.airline.model.Airport;
+import com.example.airline.repository.AircraftRepository;
+import com.example.airline.repository.AirportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataCacheWarmer {
+
+    private final CacheManager cacheManager;
+    private final AirportRepository airportRepository;
+    private final AircraftRepository aircraftRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmCaches() {
+        try {
+            List<Airport> airports = airportRepository.findAll();
+            Cache airportCache = cacheManager.getCache(CacheConfig.AIRPORTS);
+            airports.forEach(airport -> airportCache.put(airport.getAirportCode(), airport));
+
+            List<Aircraft> aircraft = aircraftRepository.findAll();
+            Cache aircraftCache = cacheManager.getCache(CacheConfig.AIRCRAFT);
+            aircraft.forEach(a -> aircraftCache.put(a.getAircraftCode(), a));
+            // Same key Spring generates for the no-arg AircraftService.getAllAircraft()
+            cacheManager.getCache(CacheConfig.AIRCRAFT_LIST).put(SimpleKey.EMPTY, aircraft);
+
+            log.info("Warmed reference data caches with {} airports and {} aircraft",
+                    airports.size(), aircraft.size());
+        } catch (Exception e) {
+            log.error("Error warming reference data caches: {}", e.getMessage(), e);
+        }
+    }
+}
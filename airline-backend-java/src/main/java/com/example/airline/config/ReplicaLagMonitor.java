@@ -0,0 +1,70 @@
+package com.example.airline.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica's replay lag and reports whether it is within the
+ * configured tolerance. An unreachable replica counts as unusable, so reads
+ * fall back to the primary. Databases without the Postgres recovery functions
+ * (e.g. a second H2 instance used for local testing) are assumed in sync.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    // Zero when the replica has replayed everything it received, otherwise time since the last replayed commit
+    private static final String LAG_MILLIS_SQL = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+    private volatile double lagMillis;
+    private volatile boolean reachable = true;
+    private volatile boolean measurable = true;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLag.toMillis();
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagMillis / 1000)
+            .description("Replica replay lag")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return reachable && lagMillis <= maxLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:PT5S}")
+    public void check() {
+        try {
+            Double lag = measurable
+                ? replicaJdbcTemplate.queryForObject(LAG_MILLIS_SQL, Double.class)
+                : replicaJdbcTemplate.queryForObject("SELECT 0", Double.class);
+            lagMillis = lag == null ? 0 : lag;
+            if (!reachable) {
+                log.info("Replica reachable again, lag {} ms", lagMillis);
+            }
+            reachable = true;
+        } catch (DataAccessResourceFailureException | TransientDataAccessException e) {
+            if (reachable) {
+                log.warn("Replica unreachable, routing reads to primary: {}", e.getMessage());
+            }
+            reachable = false;
+        } catch (DataAccessException e) {
+            log.warn("Replica lag can't be measured on this database, assuming it is in sync: {}", e.getMessage());
+            measurable = false;
+            lagMillis = 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.airline.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Extra wiring for {@code spring.threads.virtual.enabled=true} on Java 21+.
+ * Boot already moves Tomcat and the task executors onto virtual threads; this
+ * puts a {@link ConnectionLimitingDataSource} in front of Hikari so connection
+ * checkout, not thread count, is what bounds database concurrency.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    log.info("Limiting {} to {} concurrent connections for virtual threads",
+                        beanName, hikari.getMaximumPoolSize());
+                    return new ConnectionLimitingDataSource(
+                        hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Requests waiting on the limiter never reach Hikari, so its pending-connections
+     * gauge stays at zero in this mode; these report the queue in front of it.
+     */
+    @Bean
+    public MeterBinder connectionLimiterMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("jdbc.connections.limiter.pending", limiter, ConnectionLimitingDataSource::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .tag("name", name)
+                    .register(registry);
+                Gauge.builder("jdbc.connections.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                    .description("Connection permits not currently in use")
+                    .tag("name", name)
+                    .register(registry);
+            }
+        });
+    }
+}
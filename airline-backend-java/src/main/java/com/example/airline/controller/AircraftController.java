@@ -1,35 +1,65 @@
 package com.example.airline.controller;
 
+import com.example.airline.config.BinaryFormatConfig;
 import com.example.airline.dto.AircraftDTO;
 import com.example.airline.model.Aircraft;
 import com.example.airline.service.AircraftService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/aircraft")
 @RequiredArgsConstructor
 public class AircraftController {
+    // Aircraft change rarely, so CDNs and browsers may reuse responses briefly
+    // and revalidate with If-None-Match after that. Responses also Vary on
+    // Accept, since JSON, Smile and CBOR bodies share a weak ETag.
+    static final CacheControl REFERENCE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
     private final AircraftService aircraftService;
 
     @GetMapping
-    public ResponseEntity<List<AircraftDTO>> getAllAircraft() {
-        List<AircraftDTO> aircraft = aircraftService.getAllAircraft()
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(aircraft);
+    public ResponseEntity<List<AircraftDTO>> getAllAircraft(WebRequest request) {
+        List<Aircraft> aircraft = aircraftService.getAllAircraft();
+        String eTag = BinaryFormatConfig.weakETag(listETag(aircraft));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .cacheControl(REFERENCE_CACHE_CONTROL)
+            .body(aircraft.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList()));
     }
 
     @GetMapping("/{code}")
-    public ResponseEntity<AircraftDTO> getAircraftByCode(@PathVariable String code) {
-        return aircraftService.getAircraftByCode(code)
-            .map(aircraft -> ResponseEntity.ok(convertToDTO(aircraft)))
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<AircraftDTO> getAircraftByCode(@PathVariable String code, WebRequest request) {
+        Optional<Aircraft> aircraft = aircraftService.getAircraftByCode(code);
+        if (aircraft.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = BinaryFormatConfig.weakETag(versionOf(aircraft.get()));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .cacheControl(REFERENCE_CACHE_CONTROL)
+            .body(convertToDTO(aircraft.get()));
     }
 
     @PostMapping
@@ -58,6 +88,25 @@ public class AircraftController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Changes whenever an aircraft is added, removed or updated; built from the
+     * cached list, so answering a conditional request costs no query. An MD5
+     * digest of every (code, version) pair, as Spring's shallow ETags use, so
+     * unlike a 32-bit hash two lists served under a long public max-age
+     * practically never share one.
+     */
+    static String listETag(List<Aircraft> aircraft) {
+        StringBuilder pairs = new StringBuilder();
+        for (Aircraft a : aircraft) {
+            pairs.append(a.getAircraftCode()).append(':').append(versionOf(a)).append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(pairs.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int versionOf(Aircraft aircraft) {
+        return aircraft.getVersion() != null ? aircraft.getVersion() : 0;
+    }
+
     private AircraftDTO convertToDTO(Aircraft aircraft) {
         AircraftDTO dto = new AircraftDTO();
         dto.setAircraftCode(aircraft.getAircraftCode());
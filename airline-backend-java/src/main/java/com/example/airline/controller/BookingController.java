@@ -0,0 +1,21 @@
+package com.example.airline.controller;
+
+import com.example.airline.dto.BookingItineraryDTO;
+import com.example.airline.service.BookingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/bookings")
+@RequiredArgsConstructor
+public class BookingController {
+    private final BookingService bookingService;
+
+    @GetMapping("/{bookRef}/itinerary")
+    public ResponseEntity<BookingItineraryDTO> getItinerary(@PathVariable String bookRef) {
+        return bookingService.getItinerary(bookRef)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
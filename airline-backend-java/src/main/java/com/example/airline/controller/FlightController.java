@@ -1,77 +1,221 @@
 package com.example.airline.controller;
 
+import com.example.airline.config.BinaryFormatConfig;
+import com.example.airline.dto.FlightBatchResult;
 import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightPage;
+import com.example.airline.dto.FlightQuery;
+import com.example.airline.dto.FlightWithWeatherDTO;
+import com.example.airline.dto.SeatAvailabilityDTO;
 import com.example.airline.model.Flight;
 import com.example.airline.model.Aircraft;
 import com.example.airline.model.Airport;
+import com.example.airline.service.FlightEventStream;
 import com.example.airline.service.FlightService;
+import com.example.airline.service.FlightWeatherService;
+import com.example.airline.service.SeatInventoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/flights")
 @RequiredArgsConstructor
 public class FlightController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FlightService flightService;
+    private final FlightWeatherService flightWeatherService;
+    private final SeatInventoryService seatInventoryService;
+    private final FlightEventStream flightEventStream;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileConverter;
 
     @GetMapping
-    public ResponseEntity<List<FlightDTO>> getAllFlights() {
-        List<FlightDTO> flights = flightService.getAllFlights()
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<FlightDTO>> getAllFlights(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return toResponse(flightService.getAllFlights(cursor, limit));
+    }
+
+    /**
+     * Streams every flight as NDJSON, or with {@code Accept} naming Smile as
+     * one stream of concatenated Smile values, read back with
+     * {@code ObjectReader.readValues}. Smile writes field names and repeated
+     * strings once and back-references them for the rest of the stream.
+     * <p>
+     * One mapping for both: with two, Spring would pick Smile for wildcard
+     * or missing {@code Accept} headers.
+     */
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, BinaryFormatConfig.SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportFlights(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (acceptsExplicitly(accept, BinaryFormatConfig.SMILE)) {
+            return exportFlightsSmile();
+        }
+        StreamingResponseBody body = out -> flightService.exportFlights(flight -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(flight));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportFlightsSmile() {
+        ObjectWriter writer = smileConverter.getObjectMapper().writerFor(FlightDTO.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter flights = writer.writeValues(out)) {
+                flightService.exportFlights(flight -> {
+                    try {
+                        flights.write(flight);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(BinaryFormatConfig.SMILE)
+            .body(body);
+    }
+
+    // Wildcards don't count; the type must be listed with a non-zero quality
+    static boolean acceptsExplicitly(String accept, MediaType mediaType) {
+        if (accept == null) {
+            return false;
+        }
+        return MediaType.parseMediaTypes(accept).stream()
+            .anyMatch(type -> type.equalsTypeAndSubtype(mediaType) && type.getQualityValue() > 0);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamFlights(
+            @RequestParam(required = false) String airport,
+            @RequestParam(required = false) Integer flightId) {
+        return flightEventStream.subscribe(airport, flightId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Checks {@code If-None-Match} against the flight's version before loading
+     * it. Shared caches must revalidate, since statuses change at any time.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<FlightDTO> getFlightById(@PathVariable Integer id) {
+    public ResponseEntity<FlightDTO> getFlightById(@PathVariable Integer id, WebRequest request) {
+        Optional<String> version = flightService.getFlightVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = BinaryFormatConfig.weakETag(version.get());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         return flightService.getFlightById(id)
-            .map(flight -> ResponseEntity.ok(convertToDTO(flight)))
+            .map(flight -> ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(flight))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<SeatAvailabilityDTO> getSeatAvailability(@PathVariable Integer id) {
+        return seatInventoryService.getAvailability(id)
+            .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/with-weather")
+    public CompletableFuture<ResponseEntity<FlightWithWeatherDTO>> getFlightWithWeather(@PathVariable Integer id) {
+        return flightWeatherService.getFlightWithWeather(id)
+            .thenApply(flight -> flight
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build()));
+    }
+
+    @GetMapping("/with-weather")
+    public CompletableFuture<ResponseEntity<List<FlightWithWeatherDTO>>> queryFlightsWithWeather(
+            @ModelAttribute FlightQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return flightWeatherService.queryFlightsWithWeather(query, cursor, limit)
+            .thenApply(page -> {
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (page.getNextCursor() != null) {
+                    response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                }
+                return response.body(page.getFlights());
+            });
+    }
+
     @GetMapping("/departure/{airportCode}")
-    public ResponseEntity<List<FlightDTO>> getFlightsByDepartureAirport(@PathVariable String airportCode) {
-        List<FlightDTO> flights = flightService.getFlightsByDepartureAirport(airportCode)
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<FlightDTO>> getFlightsByDepartureAirport(
+            @PathVariable String airportCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return toResponse(flightService.getFlightsByDepartureAirport(airportCode, cursor, limit));
     }
 
     @GetMapping("/arrival/{airportCode}")
-    public ResponseEntity<List<FlightDTO>> getFlightsByArrivalAirport(@PathVariable String airportCode) {
-        List<FlightDTO> flights = flightService.getFlightsByArrivalAirport(airportCode)
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<FlightDTO>> getFlightsByArrivalAirport(
+            @PathVariable String airportCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return toResponse(flightService.getFlightsByArrivalAirport(airportCode, cursor, limit));
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<FlightDTO>> searchFlights(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        List<FlightDTO> flights = flightService.getFlightsByDateRange(start, end)
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(flights);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return toResponse(flightService.getFlightsByDateRange(start, end, cursor, limit));
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<List<FlightDTO>> queryFlights(
+            @ModelAttribute FlightQuery query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return toResponse(flightService.queryFlights(query, cursor, limit));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<FlightDTO>> getFlightsByStatus(@PathVariable String status) {
-        List<FlightDTO> flights = flightService.getFlightsByStatus(status)
-            .stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<List<FlightDTO>> getFlightsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FlightService.DEFAULT_PAGE_SIZE) int limit) {
+        return toResponse(flightService.getFlightsByStatus(status, cursor, limit));
     }
 
     @PostMapping
@@ -85,14 +229,32 @@ public class FlightController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<FlightBatchResult>> createFlights(@RequestBody List<FlightDTO> flightDTOs) {
+        List<Flight> flights = flightDTOs.stream()
+            .map(FlightController::convertToEntity)
+            .collect(Collectors.toList());
+        return ResponseEntity.ok(flightService.saveFlights(flights));
+    }
+
+    /**
+     * With {@code If-Match} set to the ETag from {@code GET /{id}}, the update
+     * is rejected with 409 if the flight has changed since it was read.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateFlight(@PathVariable Integer id, @RequestBody FlightDTO flightDTO) {
+    public ResponseEntity<?> updateFlight(
+            @PathVariable Integer id,
+            @RequestBody FlightDTO flightDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (!id.equals(flightDTO.getFlightId())) {
             return ResponseEntity.badRequest().body("Flight ID mismatch");
         }
         
         try {
             Flight flight = convertToEntity(flightDTO);
+            if (ifMatch != null && !ifMatch.trim().equals("*")) {
+                flight.setVersion(flightVersion(ifMatch));
+            }
             Flight updatedFlight = flightService.saveFlight(flight);
             return ResponseEntity.ok(convertToDTO(updatedFlight));
         } catch (IllegalArgumentException e) {
@@ -100,11 +262,19 @@ public class FlightController {
         }
     }
 
+    /**
+     * With {@code expected}, the status only changes if it is still that value
+     * (409 otherwise), in one UPDATE statement.
+     */
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> updateFlightStatus(
             @PathVariable Integer id,
-            @RequestParam String status) {
+            @RequestParam String status,
+            @RequestParam(required = false) String expected) {
         try {
+            if (expected != null) {
+                return ResponseEntity.ok(flightService.transitionFlightStatus(id, expected, status));
+            }
             Flight updatedFlight = flightService.updateFlightStatus(id, status);
             return ResponseEntity.ok(convertToDTO(updatedFlight));
         } catch (IllegalArgumentException e) {
@@ -118,7 +288,30 @@ public class FlightController {
         return ResponseEntity.noContent().build();
     }
 
-    private FlightDTO convertToDTO(Flight flight) {
+    private ResponseEntity<List<FlightDTO>> toResponse(FlightPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getFlights());
+    }
+
+    // ETags are "flightVersion.aircraftVersion" (see FlightRepository.findDTOVersionById)
+    static Integer flightVersion(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        int dot = value.indexOf('.');
+        try {
+            return Integer.valueOf(dot < 0 ? value : value.substring(0, dot));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + eTag);
+        }
+    }
+
+    static FlightDTO convertToDTO(Flight flight) {
         FlightDTO dto = new FlightDTO();
         dto.setFlightId(flight.getFlightId());
         dto.setFlightNo(flight.getFlightNo());
@@ -139,7 +332,7 @@ public class FlightController {
         return dto;
     }
 
-    private Flight convertToEntity(FlightDTO dto) {
+    static Flight convertToEntity(FlightDTO dto) {
         Flight flight = new Flight();
         flight.setFlightId(dto.getFlightId());
         flight.setFlightNo(dto.getFlightNo());
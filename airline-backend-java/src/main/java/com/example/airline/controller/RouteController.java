@@ -0,0 +1,31 @@
+package com.example.airline.controller;
+
+import com.example.airline.dto.RouteItineraryDTO;
+import com.example.airline.service.RouteSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/routes")
+@RequiredArgsConstructor
+public class RouteController {
+    private final RouteSearchService routeSearchService;
+
+    @GetMapping("/search")
+    public ResponseEntity<List<RouteItineraryDTO>> searchRoutes(
+            @RequestParam String from,
+            @RequestParam String to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departAfter,
+            @RequestParam(defaultValue = "2") int maxConnections,
+            @RequestParam(defaultValue = "45") int minConnectionMinutes,
+            @RequestParam(defaultValue = "EARLIEST_ARRIVAL") RouteSearchService.Optimize optimize) {
+        return ResponseEntity.ok(routeSearchService.search(from, to,
+            departAfter != null ? departAfter : LocalDateTime.now(),
+            maxConnections, minConnectionMinutes, optimize));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.airline.controller;
+
+import com.example.airline.dto.RouteStatsDTO;
+import com.example.airline.service.RouteStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/stats/routes")
+@RequiredArgsConstructor
+public class RouteStatsController {
+    private final RouteStatsService routeStatsService;
+
+    @GetMapping
+    public ResponseEntity<List<RouteStatsDTO>> getRouteTotals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination) {
+        return ResponseEntity.ok(routeStatsService.getRouteTotals(from, to, origin, destination));
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<RouteStatsDTO>> getDailyStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination) {
+        return ResponseEntity.ok(routeStatsService.getDailyStats(from, to, origin, destination));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.airline.controller;
+
+import com.example.airline.dto.TicketFlightDTO;
+import com.example.airline.dto.TicketFlightRequest;
+import com.example.airline.service.TicketService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/tickets")
+@RequiredArgsConstructor
+public class TicketController {
+    private final TicketService ticketService;
+
+    @PostMapping("/{ticketNo}/flights")
+    public ResponseEntity<TicketFlightDTO> addFlight(
+            @PathVariable String ticketNo,
+            @RequestBody TicketFlightRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(ticketService.addFlight(ticketNo, request));
+    }
+
+    @DeleteMapping("/{ticketNo}/flights/{flightId}")
+    public ResponseEntity<Void> removeFlight(@PathVariable String ticketNo, @PathVariable Integer flightId) {
+        ticketService.removeFlight(ticketNo, flightId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.airline.controller;
 
+import com.example.airline.dto.WeatherBatchResult;
 import com.example.airline.model.Weather;
+import com.example.airline.model.WeatherRollup;
+import com.example.airline.model.WeatherRollup.Resolution;
 import com.example.airline.service.WeatherService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
@@ -10,49 +13,114 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/weather")
 public class WeatherController {
+    // RAW, HOUR or DAY: what each entry of a range response summarizes
+    static final String RESOLUTION_HEADER = "X-Weather-Resolution";
+
     private final WeatherService weatherService;
 
     public WeatherController(WeatherService weatherService) {
         this.weatherService = weatherService;
     }
 
+    @GetMapping("/current")
+    public CompletableFuture<ResponseEntity<Map<String, Weather>>> getCurrentWeather(
+            @RequestParam List<String> locations) {
+        return weatherService.getCurrentWeather(locations)
+            .thenApply(ResponseEntity::ok);
+    }
+
+    // fields=temperature,conditions limits readings to those attributes plus the keys
     @GetMapping("/{locationId}/current")
-    public ResponseEntity<List<Weather>> getRecentWeather(@PathVariable String locationId) {
-        return ResponseEntity.ok(weatherService.getRecentWeather(locationId));
+    public CompletableFuture<ResponseEntity<List<Weather>>> getRecentWeather(
+            @PathVariable String locationId,
+            @RequestParam(required = false) Set<String> fields) {
+        return weatherService.getRecentWeatherAsync(locationId, fields)
+            .thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{locationId}/latest")
+    public CompletableFuture<ResponseEntity<Weather>> getLatestWeather(@PathVariable String locationId) {
+        return weatherService.getLatestWeatherAsync(locationId)
+            .thenApply(weather -> weather != null
+                ? ResponseEntity.ok(weather)
+                : ResponseEntity.notFound().<Weather>build());
     }
 
     @GetMapping("/{locationId}")
-    public ResponseEntity<List<Weather>> getWeatherForDateRange(
+    public CompletableFuture<ResponseEntity<List<Weather>>> getWeatherForDateRange(
             @PathVariable String locationId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Set<String> fields) {
         
         long startTimestamp = startTime.toInstant(ZoneOffset.UTC).getEpochSecond();
         long endTimestamp = endTime.toInstant(ZoneOffset.UTC).getEpochSecond();
-        
-        return ResponseEntity.ok(
-            weatherService.getWeatherForLocation(locationId, startTimestamp, endTimestamp)
-        );
+        String resolution = weatherService.resolutionFor(startTimestamp, endTimestamp)
+            .map(Resolution::name)
+            .orElse("RAW");
+
+        return weatherService.getWeatherForLocationAsync(locationId, startTimestamp, endTimestamp, fields)
+            .thenApply(readings -> ResponseEntity.ok()
+                .header(RESOLUTION_HEADER, resolution)
+                .body(readings));
+    }
+
+    @GetMapping("/{locationId}/rollups")
+    public ResponseEntity<List<WeatherRollup>> getRollups(
+            @PathVariable String locationId,
+            @RequestParam(defaultValue = "HOUR") Resolution resolution,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        return ResponseEntity.ok(weatherService.getRollups(locationId, resolution,
+            startTime.toInstant(ZoneOffset.UTC).getEpochSecond(),
+            endTime.toInstant(ZoneOffset.UTC).getEpochSecond()));
+    }
+
+    @PostMapping("/{locationId}/rollups/backfill")
+    public ResponseEntity<Void> backfillRollups(
+            @PathVariable String locationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        weatherService.backfillRollups(locationId,
+            startTime.toInstant(ZoneOffset.UTC).getEpochSecond(),
+            endTime.toInstant(ZoneOffset.UTC).getEpochSecond());
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/{locationId}/{timestamp}")
-    public ResponseEntity<Weather> getWeather(
+    public CompletableFuture<ResponseEntity<Weather>> getWeather(
             @PathVariable String locationId,
             @PathVariable Long timestamp) {
-        Weather weather = weatherService.getWeather(locationId, timestamp);
-        return weather != null ? ResponseEntity.ok(weather) : ResponseEntity.notFound().build();
+        return weatherService.getWeatherAsync(locationId, timestamp)
+            .thenApply(weather -> weather != null
+                ? ResponseEntity.ok(weather)
+                : ResponseEntity.notFound().<Weather>build());
     }
 
     @PostMapping
-    public ResponseEntity<Void> saveWeather(@RequestBody Weather weather) {
+    public CompletableFuture<ResponseEntity<Void>> saveWeather(@RequestBody Weather weather) {
         if (weather.getTimestamp() == null) {
             weather.setTimestamp(Instant.now().getEpochSecond());
         }
-        weatherService.saveWeather(weather);
-        return ResponseEntity.ok().build();
+        return weatherService.saveWeatherAsync(weather)
+            .thenApply(done -> ResponseEntity.ok().<Void>build());
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<WeatherBatchResult> saveWeatherBatch(@RequestBody List<Weather> observations) {
+        long now = Instant.now().getEpochSecond();
+        for (Weather weather : observations) {
+            if (weather.getTimestamp() == null) {
+                weather.setTimestamp(now);
+            }
+        }
+        return ResponseEntity.ok(weatherService.saveWeatherBatch(observations));
     }
 }
@@ -0,0 +1,18 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingItineraryDTO {
+    private String bookRef;
+    private LocalDateTime bookDate;
+    private Double totalAmount;
+    private List<TicketItineraryDTO> tickets;
+}
@@ -0,0 +1,24 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FlightBatchResult {
+    public enum Status { CREATED, REJECTED }
+
+    // Position of the row in the submitted batch
+    private int index;
+    private Status status;
+    private Integer flightId;
+    private String error;
+
+    public static FlightBatchResult created(int index, Integer flightId) {
+        return new FlightBatchResult(index, Status.CREATED, flightId, null);
+    }
+
+    public static FlightBatchResult rejected(int index, String error) {
+        return new FlightBatchResult(index, Status.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (scheduledDeparture, flightId) ordering used by the
+ * paginated flight endpoints. Clients only ever see the opaque token form.
+ */
+@Data
+@AllArgsConstructor
+public class FlightCursor {
+    private LocalDateTime scheduledDeparture;
+    private Integer flightId;
+
+    public static FlightCursor after(FlightDTO flight) {
+        return new FlightCursor(flight.getScheduledDeparture(), flight.getFlightId());
+    }
+
+    public String encode() {
+        String raw = scheduledDeparture + "|" + flightId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FlightCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new FlightCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Integer.valueOf(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
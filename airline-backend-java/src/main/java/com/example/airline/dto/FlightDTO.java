@@ -1,9 +1,13 @@
 package com.example.airline.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class FlightDTO {
     private Integer flightId;
     private String flightNo;
@@ -0,0 +1,24 @@
+package com.example.airline.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for the composite flight query. Unset fields are ignored.
+ */
+@Data
+public class FlightQuery {
+    private String origin;
+    private String destination;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private String status;
+    private String aircraft;
+}
@@ -0,0 +1,50 @@
+package com.example.airline.dto;
+
+import com.example.airline.model.Flight;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by {@code FlightService} when a flight is created, changed or
+ * deleted, and pushed to {@code /api/v1/flights/stream} subscribers once the
+ * transaction commits. A {@code DELETED} event carries the flight as it was.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightStatusEvent {
+    public enum Type { SAVED, STATUS_CHANGED, DELETED }
+
+    private Type type;
+    private Integer flightId;
+    private String flightNo;
+    private String status;
+    private String departureAirportCode;
+    private String arrivalAirportCode;
+    private LocalDateTime scheduledDeparture;
+    private LocalDateTime scheduledArrival;
+    private LocalDateTime actualDeparture;
+    private LocalDateTime actualArrival;
+
+    // Reads only the airport ids, so lazy airport references are not initialized
+    public static FlightStatusEvent of(Type type, Flight flight) {
+        return new FlightStatusEvent(type, flight.getFlightId(), flight.getFlightNo(), flight.getStatus(),
+            flight.getDepartureAirport().getAirportCode(), flight.getArrivalAirport().getAirportCode(),
+            flight.getScheduledDeparture(), flight.getScheduledArrival(),
+            flight.getActualDeparture(), flight.getActualArrival());
+    }
+
+    public static FlightStatusEvent of(Type type, FlightDTO flight) {
+        return new FlightStatusEvent(type, flight.getFlightId(), flight.getFlightNo(), flight.getStatus(),
+            flight.getDepartureAirportCode(), flight.getArrivalAirportCode(),
+            flight.getScheduledDeparture(), flight.getScheduledArrival(),
+            flight.getActualDeparture(), flight.getActualArrival());
+    }
+
+    public boolean involves(String airportCode) {
+        return airportCode.equals(departureAirportCode) || airportCode.equals(arrivalAirportCode);
+    }
+}
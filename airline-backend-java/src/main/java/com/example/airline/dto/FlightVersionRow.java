@@ -0,0 +1,15 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A flight id with its current optimistic-lock version, read in bulk to find
+ * rows that changed since they were last loaded.
+ */
+@Data
+@AllArgsConstructor
+public class FlightVersionRow {
+    private Integer flightId;
+    private Integer version;
+}
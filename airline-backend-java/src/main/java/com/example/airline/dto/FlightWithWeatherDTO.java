@@ -0,0 +1,16 @@
+package com.example.airline.dto;
+
+import com.example.airline.model.Weather;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightWithWeatherDTO {
+    private FlightDTO flight;
+    // Latest readings at each end; null when no reading is available
+    private Weather departureWeather;
+    private Weather arrivalWeather;
+}
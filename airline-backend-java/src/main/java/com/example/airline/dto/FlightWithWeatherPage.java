@@ -0,0 +1,14 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class FlightWithWeatherPage {
+    private List<FlightWithWeatherDTO> flights;
+    // Opaque token for the next page, null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,44 @@
+package com.example.airline.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One ticket/flight pair of a booking, as selected by
+ * {@code TicketRepository.findItineraryRows}. JPQL constructor expressions
+ * can't nest, so the flight columns arrive flat and are folded into a
+ * {@link FlightDTO} here. A ticket without flights yields a single row with
+ * a null {@code flight}.
+ */
+@Data
+public class ItineraryRow {
+    private final String ticketNo;
+    private final String passengerId;
+    private final String passengerName;
+    private final String contactData;
+    private final String fareConditions;
+    private final Double amount;
+    private final FlightDTO flight;
+
+    public ItineraryRow(String ticketNo, String passengerId, String passengerName, String contactData,
+                        String fareConditions, Double amount,
+                        Integer flightId, String flightNo,
+                        LocalDateTime scheduledDeparture, LocalDateTime scheduledArrival,
+                        String departureAirportCode, String arrivalAirportCode,
+                        String status, String aircraftCode,
+                        LocalDateTime actualDeparture, LocalDateTime actualArrival,
+                        String departureAirportName, String arrivalAirportName, String aircraftModel) {
+        this.ticketNo = ticketNo;
+        this.passengerId = passengerId;
+        this.passengerName = passengerName;
+        this.contactData = contactData;
+        this.fareConditions = fareConditions;
+        this.amount = amount;
+        this.flight = flightId == null ? null : new FlightDTO(
+            flightId, flightNo, scheduledDeparture, scheduledArrival,
+            departureAirportCode, arrivalAirportCode, status, aircraftCode,
+            actualDeparture, actualArrival,
+            departureAirportName, arrivalAirportName, aircraftModel);
+    }
+}
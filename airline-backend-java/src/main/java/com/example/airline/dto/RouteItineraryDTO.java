@@ -0,0 +1,23 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One way to fly between two airports, as returned by
+ * {@code /api/v1/routes/search}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteItineraryDTO {
+    private int connections;
+    private LocalDateTime departure;
+    private LocalDateTime arrival;
+    private long durationMinutes;
+    private List<RouteLegDTO> legs;
+}
@@ -0,0 +1,19 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteLegDTO {
+    private Integer flightId;
+    private String flightNo;
+    private String departureAirportCode;
+    private String arrivalAirportCode;
+    private LocalDateTime scheduledDeparture;
+    private LocalDateTime scheduledArrival;
+}
@@ -0,0 +1,29 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Statistics for one route, either for a single day ({@code flightDate} set)
+ * or summed over a date range ({@code flightDate} null).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteStatsDTO {
+    private String departureAirportCode;
+    private String arrivalAirportCode;
+    private LocalDate flightDate;
+    private long flights;
+    private long departed;
+    private long onTime;
+    private long cancelled;
+    // Share of departed flights that left no more than 15 minutes late; null when none departed
+    private Double onTimeRate;
+    private long tickets;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,18 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAvailabilityDTO {
+    private Integer flightId;
+    private Integer seatsTotal;
+    private Integer seatsAvailable;
+    // Seats sold per fare class; the aircraft has no per-class capacity
+    private Map<String, Long> seatsSold;
+}
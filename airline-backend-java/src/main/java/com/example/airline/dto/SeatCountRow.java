@@ -0,0 +1,18 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Tickets sold per fare class on a flight, as grouped by
+ * {@code TicketFlightRepository}. {@code fareConditions} is null and
+ * {@code sold} zero for a flight with no tickets.
+ */
+@Data
+@AllArgsConstructor
+public class SeatCountRow {
+    private Integer flightId;
+    private Integer seatsTotal;
+    private String fareConditions;
+    private Long sold;
+}
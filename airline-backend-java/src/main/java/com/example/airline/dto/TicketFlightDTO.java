@@ -0,0 +1,14 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketFlightDTO {
+    private String fareConditions;
+    private Double amount;
+    private FlightDTO flight;
+}
@@ -0,0 +1,10 @@
+package com.example.airline.dto;
+
+import lombok.Data;
+
+@Data
+public class TicketFlightRequest {
+    private Integer flightId;
+    private String fareConditions;
+    private Double amount;
+}
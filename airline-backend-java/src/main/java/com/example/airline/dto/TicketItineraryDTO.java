@@ -0,0 +1,19 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketItineraryDTO {
+    private String ticketNo;
+    private String passengerId;
+    private String passengerName;
+    private String contactData;
+    // Legs in departure order
+    private List<TicketFlightDTO> flights;
+}
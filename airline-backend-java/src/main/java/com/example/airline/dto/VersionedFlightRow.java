@@ -0,0 +1,31 @@
+package com.example.airline.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link FlightDTO} with the optimistic-lock version it was read at, from
+ * one SELECT so the two always match. JPQL constructor expressions can't nest,
+ * so the flight columns arrive flat like in {@link ItineraryRow}.
+ */
+@Data
+public class VersionedFlightRow {
+    private final FlightDTO flight;
+    private final Integer version;
+
+    public VersionedFlightRow(Integer flightId, String flightNo,
+                              LocalDateTime scheduledDeparture, LocalDateTime scheduledArrival,
+                              String departureAirportCode, String arrivalAirportCode,
+                              String status, String aircraftCode,
+                              LocalDateTime actualDeparture, LocalDateTime actualArrival,
+                              String departureAirportName, String arrivalAirportName, String aircraftModel,
+                              Integer version) {
+        this.flight = new FlightDTO(
+            flightId, flightNo, scheduledDeparture, scheduledArrival,
+            departureAirportCode, arrivalAirportCode, status, aircraftCode,
+            actualDeparture, actualArrival,
+            departureAirportName, arrivalAirportName, aircraftModel);
+        this.version = version;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.airline.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class WeatherBatchResult {
+    private int received;
+    // Distinct readings stored; a (locationId, timestamp) sent twice counts once
+    private int written;
+    // Items DynamoDB still reported as unprocessed after all retries
+    private int failed;
+}
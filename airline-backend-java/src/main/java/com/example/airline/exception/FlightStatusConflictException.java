@@ -0,0 +1,7 @@
+package com.example.airline.exception;
+
+public class FlightStatusConflictException extends RuntimeException {
+    public FlightStatusConflictException(Integer flightId, String expectedStatus) {
+        super("Flight " + flightId + " is no longer " + expectedStatus);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.airline.exception;
+
+import java.time.Duration;
+
+public class RouteGraphUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public RouteGraphUnavailableException(Duration retryAfter) {
+        super("Route graph is still loading");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
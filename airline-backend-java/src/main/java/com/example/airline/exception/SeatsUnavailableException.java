@@ -0,0 +1,7 @@
+package com.example.airline.exception;
+
+public class SeatsUnavailableException extends RuntimeException {
+    public SeatsUnavailableException(Integer flightId) {
+        super("No seats available on flight " + flightId);
+    }
+}
@@ -19,4 +19,8 @@ public class Aircraft {
 
     @Column(name = "seats_total", columnDefinition = "integer")
     private Integer seatsTotal;
+
+    @Version
+    @Column(name = "version", columnDefinition = "integer", nullable = false)
+    private Integer version;
 }
@@ -0,0 +1,90 @@
+package com.example.airline.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Weather} reading in the bucketed {@code WeatherByDay} table, which is
+ * partitioned by location and UTC day ({@code JFK#20250312}) so no partition
+ * grows without bound and range queries can read days in parallel.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@DynamoDbBean
+public class BucketedWeather extends Weather {
+    private static final DateTimeFormatter BUCKET_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private String bucket;
+
+    @JsonIgnore
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("bucket")
+    public String getBucket() {
+        return bucket;
+    }
+
+    // Plain attribute here; the partition key is the bucket
+    @Override
+    @DynamoDbAttribute("location_id")
+    public String getLocationId() {
+        return super.getLocationId();
+    }
+
+    public static BucketedWeather of(Weather weather) {
+        BucketedWeather item = new BucketedWeather();
+        item.setBucket(bucketOf(weather.getLocationId(), weather.getTimestamp()));
+        item.setLocationId(weather.getLocationId());
+        item.setTimestamp(weather.getTimestamp());
+        item.setTemperature(weather.getTemperature());
+        item.setHumidity(weather.getHumidity());
+        item.setConditions(weather.getConditions());
+        item.setWindSpeed(weather.getWindSpeed());
+        item.setCoordinates(weather.getCoordinates());
+        item.setExpiresAt(weather.getExpiresAt());
+        return item;
+    }
+
+    public static String bucketOf(String locationId, long epochSecond) {
+        return bucketOf(locationId, dayOf(epochSecond));
+    }
+
+    public static String bucketOf(String locationId, LocalDate day) {
+        return locationId + "#" + BUCKET_DATE.format(day);
+    }
+
+    /**
+     * Number of buckets covering {@code [startTime, endTime]}, without building
+     * them, so oversized ranges can be rejected first.
+     */
+    public static long bucketCount(long startTime, long endTime) {
+        return Math.max(0, ChronoUnit.DAYS.between(dayOf(startTime), dayOf(endTime)) + 1);
+    }
+
+    /**
+     * Buckets covering {@code [startTime, endTime]}, oldest first.
+     */
+    public static List<String> bucketsBetween(String locationId, long startTime, long endTime) {
+        LocalDate last = dayOf(endTime);
+        List<String> buckets = new ArrayList<>();
+        for (LocalDate day = dayOf(startTime); !day.isAfter(last); day = day.plusDays(1)) {
+            buckets.add(bucketOf(locationId, day));
+        }
+        return buckets;
+    }
+
+    private static LocalDate dayOf(long epochSecond) {
+        return LocalDate.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+}
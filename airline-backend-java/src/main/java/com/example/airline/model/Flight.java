@@ -8,8 +8,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "flights")
 public class Flight {
+    // Pooled sequence allocation (instead of IDENTITY) lets Hibernate batch inserts;
+    // the allocation size must match the sequence increment set in 04_sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+    @SequenceGenerator(name = "flights_seq", sequenceName = "flights_flight_id_seq", allocationSize = 50)
     @Column(name = "flight_id", columnDefinition = "serial")
     private Integer flightId;
 
@@ -42,4 +45,9 @@ public class Flight {
 
     @Column(name = "actual_arrival", columnDefinition = "timestamp")
     private LocalDateTime actualArrival;
+
+    // Bumped on every update; also the basis of the flight ETag
+    @Version
+    @Column(name = "version", columnDefinition = "integer", nullable = false)
+    private Integer version;
 }
@@ -1,14 +1,21 @@
 package com.example.airline.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
 
+// Unset fields are left out, so projected reads (?fields=) stay small on the wire
 @Data
 @DynamoDbBean
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Weather {
+    // Epoch seconds after which DynamoDB TTL deletes the item
+    public static final String EXPIRES_AT = "expires_at";
+
     private String locationId;
     private Long timestamp;
     private Double temperature;
@@ -16,6 +23,7 @@ public class Weather {
     private String conditions;
     private Double windSpeed;
     private String coordinates;
+    private Long expiresAt;
 
     @DynamoDbPartitionKey
     @DynamoDbAttribute("location_id")
@@ -53,4 +61,10 @@ public class Weather {
     public String getCoordinates() {
         return coordinates;
     }
+
+    @JsonIgnore
+    @DynamoDbAttribute(EXPIRES_AT)
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
 }
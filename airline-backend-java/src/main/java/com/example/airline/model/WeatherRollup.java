@@ -0,0 +1,89 @@
+package com.example.airline.model;
+
+import lombok.Data;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+/**
+ * Min/max/avg of the {@link Weather} readings for one location over an hour or
+ * a UTC day, stored in {@code WeatherRollup} under {@code location_id#HOUR} or
+ * {@code location_id#DAY}.
+ */
+@Data
+@DynamoDbBean
+public class WeatherRollup {
+    public enum Resolution {
+        HOUR(3600), DAY(86400);
+
+        private final long seconds;
+
+        Resolution(long seconds) {
+            this.seconds = seconds;
+        }
+
+        public long getSeconds() {
+            return seconds;
+        }
+
+        public long periodStart(long epochSecond) {
+            return Math.floorDiv(epochSecond, seconds) * seconds;
+        }
+    }
+
+    private String series;
+    private Long periodStart;
+    private String locationId;
+    private String resolution;
+    private Long count;
+    private Double temperatureMin;
+    private Double temperatureMax;
+    private Double temperatureAvg;
+    private Double humidityMin;
+    private Double humidityMax;
+    private Double humidityAvg;
+    private Double windSpeedMin;
+    private Double windSpeedMax;
+    private Double windSpeedAvg;
+    // Most frequent conditions over the period
+    private String conditions;
+    private String coordinates;
+
+    public static String seriesOf(String locationId, Resolution resolution) {
+        return locationId + "#" + resolution.name();
+    }
+
+    @DynamoDbPartitionKey
+    @DynamoDbAttribute("series")
+    public String getSeries() {
+        return series;
+    }
+
+    @DynamoDbSortKey
+    @DynamoDbAttribute("period_start")
+    public Long getPeriodStart() {
+        return periodStart;
+    }
+
+    @DynamoDbAttribute("location_id")
+    public String getLocationId() {
+        return locationId;
+    }
+
+    /**
+     * Reading-shaped view of the period's averages, served by range queries
+     * that are long enough to read rollups instead of raw readings.
+     */
+    public Weather toWeather() {
+        Weather weather = new Weather();
+        weather.setLocationId(locationId);
+        weather.setTimestamp(periodStart);
+        weather.setTemperature(temperatureAvg);
+        weather.setHumidity(humidityAvg);
+        weather.setWindSpeed(windSpeedAvg);
+        weather.setConditions(conditions);
+        weather.setCoordinates(coordinates);
+        return weather;
+    }
+}
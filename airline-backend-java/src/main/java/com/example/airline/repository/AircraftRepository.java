@@ -2,6 +2,16 @@ package com.example.airline.repository;
 
 import com.example.airline.model.Aircraft;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
 
 public interface AircraftRepository extends JpaRepository<Aircraft, String> {
+    @Query("SELECT a.aircraftCode FROM Aircraft a WHERE a.aircraftCode IN ?1")
+    Set<String> findExistingCodes(Collection<String> codes);
+
+    @Query("SELECT a.version FROM Aircraft a WHERE a.aircraftCode = ?1")
+    Optional<Integer> findVersionById(String code);
 }
@@ -2,6 +2,12 @@ package com.example.airline.repository;
 
 import com.example.airline.model.Airport;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Set;
 
 public interface AirportRepository extends JpaRepository<Airport, String> {
+    @Query("SELECT a.airportCode FROM Airport a WHERE a.airportCode IN ?1")
+    Set<String> findExistingCodes(Collection<String> codes);
 }
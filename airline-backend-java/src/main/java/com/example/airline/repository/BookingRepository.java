@@ -0,0 +1,7 @@
+package com.example.airline.repository;
+
+import com.example.airline.model.Booking;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BookingRepository extends JpaRepository<Booking, String> {
+}
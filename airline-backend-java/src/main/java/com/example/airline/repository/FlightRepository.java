@@ -1,12 +1,47 @@
 package com.example.airline.repository;
 
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightVersionRow;
+import com.example.airline.dto.VersionedFlightRow;
 import com.example.airline.model.Flight;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface FlightRepository extends JpaRepository<Flight, Integer>, FlightRepositoryCustom {
+    /**
+     * Builds {@link FlightDTO} rows in a single joined SELECT so read endpoints
+     * never touch the lazy airport/aircraft associations.
+     */
+    String FLIGHT_DTO_SELECT = "SELECT new com.example.airline.dto.FlightDTO("
+            + "f.flightId, f.flightNo, f.scheduledDeparture, f.scheduledArrival, "
+            + "da.airportCode, aa.airportCode, f.status, ac.aircraftCode, "
+            + "f.actualDeparture, f.actualArrival, "
+            + "da.airportName, aa.airportName, ac.model) "
+            + "FROM Flight f JOIN f.departureAirport da JOIN f.arrivalAirport aa JOIN f.aircraft ac";
+
+    /**
+     * {@link #FLIGHT_DTO_SELECT} with the flight's version alongside, for
+     * caches that must not let an older row replace a newer one.
+     */
+    String VERSIONED_FLIGHT_DTO_SELECT = "SELECT new com.example.airline.dto.VersionedFlightRow("
+            + "f.flightId, f.flightNo, f.scheduledDeparture, f.scheduledArrival, "
+            + "da.airportCode, aa.airportCode, f.status, ac.aircraftCode, "
+            + "f.actualDeparture, f.actualArrival, "
+            + "da.airportName, aa.airportName, ac.model, f.version) "
+            + "FROM Flight f JOIN f.departureAirport da JOIN f.arrivalAirport aa JOIN f.aircraft ac";
+
+    // Rows pulled per round trip while streaming; Postgres only honours it inside a transaction
+    String EXPORT_FETCH_SIZE = "500";
 
-public interface FlightRepository extends JpaRepository<Flight, Integer> {
     List<Flight> findByDepartureAirport_AirportCode(String departureAirport);
     List<Flight> findByArrivalAirport_AirportCode(String arrivalAirport);
     
@@ -14,4 +49,61 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
     List<Flight> findFlightsInDateRange(LocalDateTime start, LocalDateTime end);
     
     List<Flight> findByStatus(String status);
+
+    @Query(FLIGHT_DTO_SELECT + " WHERE f.flightId = ?1")
+    Optional<FlightDTO> findFlightDTOById(Integer flightId);
+
+    @Query("SELECT f.version FROM Flight f WHERE f.flightId = ?1")
+    Optional<Integer> findVersionById(Integer flightId);
+
+    @Query(VERSIONED_FLIGHT_DTO_SELECT + " WHERE f.flightId = ?1")
+    Optional<VersionedFlightRow> findVersionedFlightDTOById(Integer flightId);
+
+    @Query(VERSIONED_FLIGHT_DTO_SELECT + " WHERE f.flightId IN ?1")
+    List<VersionedFlightRow> findVersionedFlightDTOsByIds(Collection<Integer> flightIds);
+
+    @Query(FLIGHT_DTO_SELECT + " WHERE f.flightId IN ?1")
+    List<FlightDTO> findFlightDTOsByIds(Collection<Integer> flightIds);
+
+    /**
+     * Ids and versions of flights departing in {@code [start, end]}, to find
+     * changed rows without loading them.
+     */
+    @Query("SELECT new com.example.airline.dto.FlightVersionRow(f.flightId, f.version) "
+            + "FROM Flight f WHERE f.scheduledDeparture >= ?1 AND f.scheduledDeparture <= ?2")
+    List<FlightVersionRow> findVersionsDepartingBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Flights departing in {@code [start, end]} that are not cancelled, as
+     * loaded into the connection search graph.
+     */
+    @Query(VERSIONED_FLIGHT_DTO_SELECT + " WHERE f.scheduledDeparture >= ?1 AND f.scheduledDeparture <= ?2"
+            + " AND f.status <> 'Cancelled'")
+    List<VersionedFlightRow> findBookableVersionedFlightDTOsDepartingBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Versions of the rows behind {@link #findFlightDTOById} that can change
+     * through the API, as {@code flightVersion.aircraftVersion}. Airports are
+     * read-only reference data.
+     */
+    @Query("SELECT CONCAT(CAST(f.version AS String), '.', CAST(ac.version AS String)) "
+            + "FROM Flight f JOIN f.aircraft ac WHERE f.flightId = ?1")
+    Optional<String> findDTOVersionById(Integer flightId);
+
+    /**
+     * Compare-and-set on the status column: updates the row only if its status
+     * is still {@code expectedStatus}, and bumps the version so concurrent
+     * entity updates and cached ETags see the change. Returns the row count.
+     */
+    @Modifying
+    @Query("UPDATE Flight f SET f.status = ?3, f.version = f.version + 1 "
+            + "WHERE f.flightId = ?1 AND f.status = ?2")
+    int updateStatusIfCurrent(Integer flightId, String expectedStatus, String status);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(FLIGHT_DTO_SELECT + " ORDER BY f.scheduledDeparture, f.flightId")
+    Stream<FlightDTO> streamAllFlightDTOs();
 }
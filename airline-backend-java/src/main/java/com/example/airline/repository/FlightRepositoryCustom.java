@@ -0,0 +1,23 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.model.Flight;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface FlightRepositoryCustom {
+    /**
+     * Keyset page of flights matching {@code spec}, ordered by scheduled departure
+     * then flight id. Pass a null {@code after} for the first page.
+     */
+    List<FlightDTO> findFlightDTOs(Specification<Flight> spec, FlightCursor after, int limit);
+
+    /**
+     * Persists new flights, flushing and clearing every JDBC batch so the
+     * persistence context stays small. Airport and aircraft codes must already
+     * be validated; they are attached as proxies without extra SELECTs.
+     */
+    void persistInBatches(List<Flight> flights);
+}
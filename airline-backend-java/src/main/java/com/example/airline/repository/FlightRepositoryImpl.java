@@ -0,0 +1,100 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.model.Aircraft;
+import com.example.airline.model.Airport;
+import com.example.airline.model.Flight;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FlightRepositoryImpl implements FlightRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public List<FlightDTO> findFlightDTOs(Specification<Flight> spec, FlightCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FlightDTO> query = cb.createQuery(FlightDTO.class);
+        Root<Flight> flight = query.from(Flight.class);
+        Join<Flight, Airport> departureAirport = flight.join("departureAirport");
+        Join<Flight, Airport> arrivalAirport = flight.join("arrivalAirport");
+        Join<Flight, Aircraft> aircraft = flight.join("aircraft");
+
+        Path<LocalDateTime> scheduledDeparture = flight.get("scheduledDeparture");
+        Path<Integer> flightId = flight.get("flightId");
+
+        query.select(cb.construct(FlightDTO.class,
+            flightId,
+            flight.get("flightNo"),
+            scheduledDeparture,
+            flight.get("scheduledArrival"),
+            departureAirport.get("airportCode"),
+            arrivalAirport.get("airportCode"),
+            flight.get("status"),
+            aircraft.get("aircraftCode"),
+            flight.get("actualDeparture"),
+            flight.get("actualArrival"),
+            departureAirport.get("airportName"),
+            arrivalAirport.get("airportName"),
+            aircraft.get("model")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(flight, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                cb.greaterThan(scheduledDeparture, after.getScheduledDeparture()),
+                cb.and(
+                    cb.equal(scheduledDeparture, after.getScheduledDeparture()),
+                    cb.greaterThan(flightId, after.getFlightId()))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(scheduledDeparture), cb.asc(flightId));
+
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+
+    @Override
+    public void persistInBatches(List<Flight> flights) {
+        for (int i = 0; i < flights.size(); i++) {
+            Flight flight = flights.get(i);
+            flight.setDepartureAirport(entityManager.getReference(
+                Airport.class, flight.getDepartureAirport().getAirportCode()));
+            flight.setArrivalAirport(entityManager.getReference(
+                Airport.class, flight.getArrivalAirport().getAirportCode()));
+            flight.setAircraft(entityManager.getReference(
+                Aircraft.class, flight.getAircraft().getAircraftCode()));
+            entityManager.persist(flight);
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+    }
+}
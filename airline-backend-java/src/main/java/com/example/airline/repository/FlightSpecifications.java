@@ -0,0 +1,68 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.FlightQuery;
+import com.example.airline.model.Flight;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class FlightSpecifications {
+
+    private FlightSpecifications() {
+    }
+
+    public static Specification<Flight> departsFrom(String airportCode) {
+        return (root, query, cb) -> cb.equal(root.get("departureAirport").get("airportCode"), airportCode);
+    }
+
+    public static Specification<Flight> arrivesAt(String airportCode) {
+        return (root, query, cb) -> cb.equal(root.get("arrivalAirport").get("airportCode"), airportCode);
+    }
+
+    public static Specification<Flight> departsBetween(LocalDateTime start, LocalDateTime end) {
+        return (root, query, cb) -> cb.between(root.<LocalDateTime>get("scheduledDeparture"), start, end);
+    }
+
+    public static Specification<Flight> departsAfter(LocalDateTime start) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("scheduledDeparture"), start);
+    }
+
+    public static Specification<Flight> departsBefore(LocalDateTime end) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDateTime>get("scheduledDeparture"), end);
+    }
+
+    public static Specification<Flight> hasStatus(String status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Flight> operatedBy(String aircraftCode) {
+        return (root, query, cb) -> cb.equal(root.get("aircraft").get("aircraftCode"), aircraftCode);
+    }
+
+    /**
+     * ANDs together a predicate for every filter set on {@code query}, so any
+     * combination runs as one statement.
+     */
+    public static Specification<Flight> matching(FlightQuery query) {
+        Specification<Flight> spec = Specification.where(null);
+        if (query.getOrigin() != null) {
+            spec = spec.and(departsFrom(query.getOrigin()));
+        }
+        if (query.getDestination() != null) {
+            spec = spec.and(arrivesAt(query.getDestination()));
+        }
+        if (query.getFrom() != null) {
+            spec = spec.and(departsAfter(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            spec = spec.and(departsBefore(query.getTo()));
+        }
+        if (query.getStatus() != null) {
+            spec = spec.and(hasStatus(query.getStatus()));
+        }
+        if (query.getAircraft() != null) {
+            spec = spec.and(operatedBy(query.getAircraft()));
+        }
+        return spec;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.RouteStatsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reads the {@code route_daily_stats} materialized view (db/postgres/init/05_route_stats.sql).
+ * The view is not a JPA entity so schema validation doesn't depend on how the
+ * driver reports materialized views.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RouteStatsRepository {
+    private static final String ROUTE_FILTER = "WHERE flight_date BETWEEN :from AND :to "
+            + "AND (CAST(:origin AS text) IS NULL OR departure_airport = :origin) "
+            + "AND (CAST(:destination AS text) IS NULL OR arrival_airport = :destination) ";
+
+    private static final String ROUTE_TOTALS_SQL = "SELECT departure_airport, arrival_airport, "
+            + "CAST(NULL AS date) AS flight_date, "
+            + "sum(flights) AS flights, sum(departed) AS departed, sum(on_time) AS on_time, "
+            + "sum(cancelled) AS cancelled, sum(tickets) AS tickets, sum(revenue) AS revenue "
+            + "FROM route_daily_stats "
+            + ROUTE_FILTER
+            + "GROUP BY departure_airport, arrival_airport "
+            + "ORDER BY departure_airport, arrival_airport";
+
+    private static final String DAILY_SQL = "SELECT departure_airport, arrival_airport, flight_date, "
+            + "flights, departed, on_time, cancelled, tickets, revenue "
+            + "FROM route_daily_stats "
+            + ROUTE_FILTER
+            + "ORDER BY departure_airport, arrival_airport, flight_date";
+
+    private static final RowMapper<RouteStatsDTO> ROW_MAPPER = (rs, rowNum) -> {
+        Date flightDate = rs.getDate("flight_date");
+        long departed = rs.getLong("departed");
+        long onTime = rs.getLong("on_time");
+        return new RouteStatsDTO(
+            rs.getString("departure_airport"),
+            rs.getString("arrival_airport"),
+            flightDate == null ? null : flightDate.toLocalDate(),
+            rs.getLong("flights"),
+            departed,
+            onTime,
+            rs.getLong("cancelled"),
+            departed == 0 ? null : (double) onTime / departed,
+            rs.getLong("tickets"),
+            rs.getBigDecimal("revenue"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<RouteStatsDTO> findRouteTotals(LocalDate from, LocalDate to, String origin, String destination) {
+        return jdbcTemplate.query(ROUTE_TOTALS_SQL, params(from, to, origin, destination), ROW_MAPPER);
+    }
+
+    public List<RouteStatsDTO> findDailyStats(LocalDate from, LocalDate to, String origin, String destination) {
+        return jdbcTemplate.query(DAILY_SQL, params(from, to, origin, destination), ROW_MAPPER);
+    }
+
+    private static MapSqlParameterSource params(LocalDate from, LocalDate to, String origin, String destination) {
+        return new MapSqlParameterSource()
+            .addValue("from", from)
+            .addValue("to", to)
+            .addValue("origin", origin)
+            .addValue("destination", destination);
+    }
+}
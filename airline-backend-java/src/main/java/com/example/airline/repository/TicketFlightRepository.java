@@ -0,0 +1,23 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.SeatCountRow;
+import com.example.airline.model.TicketFlight;
+import com.example.airline.model.TicketFlightId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TicketFlightRepository extends JpaRepository<TicketFlight, TicketFlightId> {
+    String SEAT_COUNT_SELECT = "SELECT new com.example.airline.dto.SeatCountRow("
+            + "f.flightId, ac.seatsTotal, tf.fareConditions, COUNT(tf)) "
+            + "FROM Flight f JOIN f.aircraft ac LEFT JOIN TicketFlight tf ON tf.flight = f ";
+    String SEAT_COUNT_GROUP_BY = " GROUP BY f.flightId, ac.seatsTotal, tf.fareConditions";
+
+    @Query(SEAT_COUNT_SELECT + "WHERE f.scheduledDeparture >= ?1" + SEAT_COUNT_GROUP_BY)
+    List<SeatCountRow> countSeatsSoldDepartingFrom(LocalDateTime from);
+
+    @Query(SEAT_COUNT_SELECT + "WHERE f.flightId = ?1" + SEAT_COUNT_GROUP_BY)
+    List<SeatCountRow> countSeatsSold(Integer flightId);
+}
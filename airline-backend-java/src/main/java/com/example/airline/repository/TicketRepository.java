@@ -0,0 +1,31 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.ItineraryRow;
+import com.example.airline.model.Ticket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface TicketRepository extends JpaRepository<Ticket, String> {
+    /**
+     * Every ticket of a booking with its flights, airports and aircraft in one
+     * joined SELECT, ordered by ticket and then departure.
+     */
+    @Query("SELECT new com.example.airline.dto.ItineraryRow("
+            + "t.ticketNo, t.passengerId, t.passengerName, t.contactData, "
+            + "tf.fareConditions, tf.amount, "
+            + "f.flightId, f.flightNo, f.scheduledDeparture, f.scheduledArrival, "
+            + "da.airportCode, aa.airportCode, f.status, ac.aircraftCode, "
+            + "f.actualDeparture, f.actualArrival, "
+            + "da.airportName, aa.airportName, ac.model) "
+            + "FROM Ticket t "
+            + "LEFT JOIN TicketFlight tf ON tf.ticket = t "
+            + "LEFT JOIN tf.flight f "
+            + "LEFT JOIN f.departureAirport da "
+            + "LEFT JOIN f.arrivalAirport aa "
+            + "LEFT JOIN f.aircraft ac "
+            + "WHERE t.booking.bookRef = ?1 "
+            + "ORDER BY t.ticketNo, f.scheduledDeparture")
+    List<ItineraryRow> findItineraryRows(String bookRef);
+}
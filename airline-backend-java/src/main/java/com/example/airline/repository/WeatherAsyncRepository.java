@@ -0,0 +1,91 @@
+package com.example.airline.repository;
+
+import com.example.airline.model.Weather;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Non-blocking counterpart of {@link WeatherRepository}; calls complete on the
+ * SDK's Netty event loop instead of holding the caller's thread. Expired
+ * readings are left out the same way.
+ */
+@Repository
+@ConditionalOnProperty(name = "aws.dynamodb.async.enabled", havingValue = "true")
+@Timed(value = "weather.repository", extraTags = {"client", "async"}, histogram = true)
+public class WeatherAsyncRepository {
+    private final DynamoDbAsyncTable<Weather> weatherTable;
+
+    public WeatherAsyncRepository(DynamoDbEnhancedAsyncClient dynamoDbEnhancedAsyncClient) {
+        this.weatherTable = dynamoDbEnhancedAsyncClient.table(WeatherRepository.WEATHER_TABLE, TableSchema.fromBean(Weather.class));
+    }
+
+    public CompletableFuture<Weather> getWeather(String locationId, Long timestamp) {
+        Key key = Key.builder()
+                .partitionValue(locationId)
+                .sortValue(timestamp)
+                .build();
+        return weatherTable.getItem(key).thenApply(WeatherRepository::unlessExpired);
+    }
+
+    /**
+     * @param projection attributes to read, from {@link WeatherRepository#projectionOf}; null for all
+     */
+    public SdkPublisher<Weather> streamWeatherForLocation(String locationId, long startTime, long endTime,
+                                                          List<String> projection) {
+        QueryConditional queryConditional = QueryConditional
+                .sortBetween(Key.builder().partitionValue(locationId).sortValue(startTime).build(),
+                           Key.builder().partitionValue(locationId).sortValue(endTime).build());
+
+        return weatherTable.query(WeatherRepository.queryRequest(queryConditional, projection)).items();
+    }
+
+    public CompletableFuture<List<Weather>> getWeatherForLocation(String locationId, long startTime, long endTime,
+                                                                  List<String> projection) {
+        // Publisher signals are serialised, and completion of the future publishes the list
+        List<Weather> results = new ArrayList<>();
+        return streamWeatherForLocation(locationId, startTime, endTime, projection)
+                .subscribe(results::add)
+                .thenApply(done -> results);
+    }
+
+    public CompletableFuture<List<Weather>> getRecentWeather(String locationId, List<String> projection) {
+        long endTime = Instant.now().getEpochSecond();
+        long startTime = endTime - (24 * 60 * 60); // Last 24 hours
+        return getWeatherForLocation(locationId, startTime, endTime, projection);
+    }
+
+    public CompletableFuture<Weather> getLatestWeather(String locationId) {
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(
+                        Key.builder().partitionValue(locationId).build()))
+                .filterExpression(WeatherRepository.notExpired())
+                .scanIndexForward(false)
+                .limit(1)
+                .build();
+
+        AtomicReference<Weather> latest = new AtomicReference<>();
+        return weatherTable.query(request)
+                .items()
+                .limit(1)
+                .subscribe(latest::set)
+                .thenApply(done -> latest.get());
+    }
+
+    public CompletableFuture<Void> saveWeather(Weather weather) {
+        return weatherTable.putItem(weather);
+    }
+}
@@ -1,51 +1,403 @@
 package com.example.airline.repository;
 
+import com.example.airline.model.BucketedWeather;
 import com.example.airline.model.Weather;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Expression;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
+/**
+ * Raw weather readings. By default they live in {@code Weather}, one partition
+ * per location. With {@code weather.storage.bucketed=true} they go to
+ * {@code WeatherByDay} instead, one partition per location and UTC day (see
+ * {@link BucketedWeather}); range queries then read the days in parallel.
+ * <p>
+ * TTL deletes readings up to about two days after they expire, so every read
+ * leaves out readings past their {@code expires_at}: queries with a filter
+ * expression, key lookups on the client.
+ */
 @Repository
+@Timed(value = "weather.repository", extraTags = {"client", "sync"}, histogram = true)
 public class WeatherRepository {
+    public static final String WEATHER_TABLE = "Weather";
+    public static final String BUCKETED_TABLE = "WeatherByDay";
+
+    // BatchWriteItem accepts at most 25 items per request
+    private static final int MAX_BATCH_ITEMS = 25;
+    private static final int MAX_BATCH_ATTEMPTS = 8;
+    private static final long BASE_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+    // Longest range, in daily buckets, a single bucketed query may fan out to
+    private static final int MAX_BUCKETS = 366;
+    // Attribute behind each field a caller may project; the keys always come back
+    private static final Map<String, String> PROJECTABLE_FIELDS = Map.of(
+            "temperature", "temperature",
+            "humidity", "humidity",
+            "conditions", "conditions",
+            "windSpeed", "windSpeed",
+            "coordinates", "coordinates");
+    private static final List<String> KEY_ATTRIBUTES = List.of("location_id", "timestamp");
+
+    private final DynamoDbEnhancedClient dynamoDbEnhancedClient;
     private final DynamoDbTable<Weather> weatherTable;
+    private final DynamoDbTable<BucketedWeather> bucketedTable;
+    private final ExecutorService weatherWriteExecutor;
+    private final ExecutorService weatherReadExecutor;
+    private final boolean bucketed;
+    private final long latestLookbackDays;
+
+    public WeatherRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient,
+                             @Qualifier("weatherWriteExecutor") ExecutorService weatherWriteExecutor,
+                             @Qualifier("weatherReadExecutor") ExecutorService weatherReadExecutor,
+                             @Value("${weather.storage.bucketed:false}") boolean bucketed,
+                             @Value("${weather.storage.latest-lookback:P7D}") Duration latestLookback) {
+        this.dynamoDbEnhancedClient = dynamoDbEnhancedClient;
+        this.weatherTable = dynamoDbEnhancedClient.table(WEATHER_TABLE, TableSchema.fromBean(Weather.class));
+        this.bucketedTable = dynamoDbEnhancedClient.table(BUCKETED_TABLE, TableSchema.fromBean(BucketedWeather.class));
+        this.weatherWriteExecutor = weatherWriteExecutor;
+        this.weatherReadExecutor = weatherReadExecutor;
+        this.bucketed = bucketed;
+        this.latestLookbackDays = latestLookback.toDays();
+    }
 
-    public WeatherRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
-        this.weatherTable = dynamoDbEnhancedClient.table("Weather", TableSchema.fromBean(Weather.class));
+    public boolean isBucketed() {
+        return bucketed;
     }
 
     public Weather getWeather(String locationId, Long timestamp) {
+        if (bucketed) {
+            return unlessExpired(bucketedTable.getItem(Key.builder()
+                    .partitionValue(BucketedWeather.bucketOf(locationId, timestamp))
+                    .sortValue(timestamp)
+                    .build()));
+        }
         Key key = Key.builder()
                 .partitionValue(locationId)
                 .sortValue(timestamp)
                 .build();
-        return weatherTable.getItem(key);
+        return unlessExpired(weatherTable.getItem(key));
+    }
+
+    /**
+     * Attributes to read for the requested fields, or null for whole items when
+     * no fields are given. Projection trims the response, not the read
+     * capacity, which DynamoDB charges on the full item size.
+     */
+    public static List<String> projectionOf(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        List<String> attributes = new ArrayList<>(KEY_ATTRIBUTES);
+        for (String field : fields) {
+            String attribute = PROJECTABLE_FIELDS.get(field);
+            if (attribute == null) {
+                throw new IllegalArgumentException("Unknown weather field: " + field
+                        + "; expected any of " + new TreeSet<>(PROJECTABLE_FIELDS.keySet()));
+            }
+            if (!attributes.contains(attribute)) {
+                attributes.add(attribute);
+            }
+        }
+        return attributes;
     }
 
     public List<Weather> getWeatherForLocation(String locationId, long startTime, long endTime) {
+        return getWeatherForLocation(locationId, startTime, endTime, null);
+    }
+
+    /**
+     * In the bucketed layout each day is queried on the read executor, so call
+     * this from a request or scheduler thread rather than from that executor.
+     *
+     * @param projection attributes to read, from {@link #projectionOf}; null for all
+     */
+    public List<Weather> getWeatherForLocation(String locationId, long startTime, long endTime,
+                                               List<String> projection) {
+        if (bucketed) {
+            return getBucketedWeather(locationId, startTime, endTime, projection);
+        }
         QueryConditional queryConditional = QueryConditional
                 .sortBetween(Key.builder().partitionValue(locationId).sortValue(startTime).build(),
                            Key.builder().partitionValue(locationId).sortValue(endTime).build());
 
-        return weatherTable.query(queryConditional)
+        return weatherTable.query(queryRequest(queryConditional, projection))
+                .items()
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    private List<Weather> getBucketedWeather(String locationId, long startTime, long endTime,
+                                             List<String> projection) {
+        if (BucketedWeather.bucketCount(startTime, endTime) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_BUCKETS + " days");
+        }
+        List<String> buckets = BucketedWeather.bucketsBetween(locationId, startTime, endTime);
+        if (buckets.size() == 1) {
+            return queryBucket(buckets.get(0), startTime, endTime, projection);
+        }
+        List<CompletableFuture<List<Weather>>> days = buckets.stream()
+                .map(bucket -> CompletableFuture.supplyAsync(
+                        () -> queryBucket(bucket, startTime, endTime, projection), weatherReadExecutor))
+                .collect(Collectors.toList());
+        List<Weather> readings = new ArrayList<>();
+        days.forEach(day -> readings.addAll(day.join()));
+        return readings;
+    }
+
+    private List<Weather> queryBucket(String bucket, long startTime, long endTime, List<String> projection) {
+        QueryConditional queryConditional = QueryConditional
+                .sortBetween(Key.builder().partitionValue(bucket).sortValue(startTime).build(),
+                           Key.builder().partitionValue(bucket).sortValue(endTime).build());
+
+        return bucketedTable.query(queryRequest(queryConditional, projection))
                 .items()
                 .stream()
                 .collect(Collectors.toList());
     }
 
+    static QueryEnhancedRequest queryRequest(QueryConditional queryConditional, List<String> projection) {
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .queryConditional(queryConditional)
+                .filterExpression(notExpired());
+        if (projection != null) {
+            request.attributesToProject(projection);
+        }
+        return request.build();
+    }
+
+    /**
+     * Filter for readings not yet past their expiry. Readings written without
+     * one never expire. Filtering happens after the read, so expired readings
+     * still cost read capacity until TTL deletes them.
+     */
+    static Expression notExpired() {
+        return Expression.builder()
+                .expression("attribute_not_exists(#expiresAt) OR #expiresAt > :now")
+                .putExpressionName("#expiresAt", Weather.EXPIRES_AT)
+                .putExpressionValue(":now", AttributeValue.builder()
+                        .n(Long.toString(Instant.now().getEpochSecond()))
+                        .build())
+                .build();
+    }
+
+    static <T extends Weather> T unlessExpired(T weather) {
+        return weather == null || isExpired(weather, Instant.now().getEpochSecond()) ? null : weather;
+    }
+
+    private static boolean isExpired(Weather weather, long now) {
+        return weather.getExpiresAt() != null && weather.getExpiresAt() <= now;
+    }
+
     public List<Weather> getRecentWeather(String locationId) {
+        return getRecentWeather(locationId, null);
+    }
+
+    public List<Weather> getRecentWeather(String locationId, List<String> projection) {
         long endTime = Instant.now().getEpochSecond();
         long startTime = endTime - (24 * 60 * 60); // Last 24 hours
-        return getWeatherForLocation(locationId, startTime, endTime);
+        return getWeatherForLocation(locationId, startTime, endTime, projection);
+    }
+
+    /**
+     * Newest unexpired reading for a location: a single-item query read
+     * backwards from the end of the partition, whatever its age. Pages whose
+     * item the filter drops come back empty, and the next one is read.
+     */
+    public Weather getLatestWeather(String locationId) {
+        if (bucketed) {
+            return getLatestBucketedWeather(locationId);
+        }
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .queryConditional(QueryConditional.keyEqualTo(
+                        Key.builder().partitionValue(locationId).build()))
+                .filterExpression(notExpired())
+                .scanIndexForward(false)
+                .limit(1)
+                .build();
+
+        return weatherTable.query(request)
+                .items()
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Walks back one day at a time, up to the configured lookback, since the
+     * newest reading is no longer at the end of a single partition.
+     */
+    private Weather getLatestBucketedWeather(String locationId) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (long daysBack = 0; daysBack <= latestLookbackDays; daysBack++) {
+            QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                    .queryConditional(QueryConditional.keyEqualTo(Key.builder()
+                            .partitionValue(BucketedWeather.bucketOf(locationId, today.minusDays(daysBack)))
+                            .build()))
+                    .filterExpression(notExpired())
+                    .scanIndexForward(false)
+                    .limit(1)
+                    .build();
+            Optional<BucketedWeather> latest = bucketedTable.query(request).items().stream().findFirst();
+            if (latest.isPresent()) {
+                return latest.get();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches readings whose exact key is known with BatchGetItem (at most 100
+     * keys). Unprocessed keys are re-requested by the SDK's result pages.
+     *
+     * @return found readings keyed by location id
+     */
+    public Map<String, Weather> getWeatherBatch(Map<String, Long> timestampsByLocation) {
+        long now = Instant.now().getEpochSecond();
+        if (bucketed) {
+            ReadBatch.Builder<BucketedWeather> batch = ReadBatch.builder(BucketedWeather.class)
+                    .mappedTableResource(bucketedTable);
+            timestampsByLocation.forEach((locationId, timestamp) -> batch.addGetItem(Key.builder()
+                    .partitionValue(BucketedWeather.bucketOf(locationId, timestamp))
+                    .sortValue(timestamp)
+                    .build()));
+            Map<String, Weather> found = new HashMap<>();
+            dynamoDbEnhancedClient.batchGetItem(BatchGetItemEnhancedRequest.builder()
+                            .readBatches(batch.build())
+                            .build())
+                    .resultsForTable(bucketedTable)
+                    .forEach(weather -> putUnlessExpired(found, weather, now));
+            return found;
+        }
+        ReadBatch.Builder<Weather> batch = ReadBatch.builder(Weather.class)
+                .mappedTableResource(weatherTable);
+        timestampsByLocation.forEach((locationId, timestamp) -> batch.addGetItem(
+                Key.builder().partitionValue(locationId).sortValue(timestamp).build()));
+
+        Map<String, Weather> found = new HashMap<>();
+        dynamoDbEnhancedClient.batchGetItem(BatchGetItemEnhancedRequest.builder()
+                        .readBatches(batch.build())
+                        .build())
+                .resultsForTable(weatherTable)
+                .forEach(weather -> putUnlessExpired(found, weather, now));
+        return found;
+    }
+
+    private static void putUnlessExpired(Map<String, Weather> found, Weather weather, long now) {
+        if (!isExpired(weather, now)) {
+            found.put(weather.getLocationId(), weather);
+        }
     }
 
     public void saveWeather(Weather weather) {
-        weatherTable.putItem(weather);
+        if (bucketed) {
+            bucketedTable.putItem(BucketedWeather.of(weather));
+        } else {
+            weatherTable.putItem(weather);
+        }
+    }
+
+    /**
+     * Writes items with BatchWriteItem in chunks of 25, running up to the
+     * configured number of chunks in parallel. Unprocessed items are retried
+     * with jittered exponential backoff.
+     *
+     * @return items that were still unprocessed after the last attempt
+     */
+    public List<Weather> saveWeatherBatch(List<Weather> items) {
+        // A batch may not contain the same key twice; the last reading wins
+        Map<String, Weather> unique = new LinkedHashMap<>();
+        for (Weather weather : items) {
+            unique.put(itemKey(weather), weather);
+        }
+        if (bucketed) {
+            return writeInChunks(bucketedTable, BucketedWeather.class, unique.values().stream()
+                    .map(BucketedWeather::of)
+                    .collect(Collectors.toList()));
+        }
+        return writeInChunks(weatherTable, Weather.class, new ArrayList<>(unique.values()));
+    }
+
+    /**
+     * Identifies a reading across layouts and copies: unprocessed items come
+     * back as new objects, in the bucketed layout as {@link BucketedWeather}.
+     */
+    public static String itemKey(Weather weather) {
+        return weather.getLocationId() + "#" + weather.getTimestamp();
+    }
+
+    private <T extends Weather> List<Weather> writeInChunks(DynamoDbTable<T> table, Class<T> itemClass, List<T> pending) {
+        List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += MAX_BATCH_ITEMS) {
+            List<T> chunk = pending.subList(i, Math.min(i + MAX_BATCH_ITEMS, pending.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> writeChunk(table, itemClass, chunk), weatherWriteExecutor));
+        }
+
+        List<Weather> unprocessed = new ArrayList<>();
+        chunks.forEach(chunk -> unprocessed.addAll(chunk.join()));
+        return unprocessed;
+    }
+
+    private <T extends Weather> List<T> writeChunk(DynamoDbTable<T> table, Class<T> itemClass, List<T> chunk) {
+        List<T> pending = chunk;
+        for (int attempt = 0; attempt < MAX_BATCH_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if (attempt > 0 && !backOff(attempt)) {
+                break;
+            }
+
+            WriteBatch.Builder<T> batch = WriteBatch.builder(itemClass)
+                    .mappedTableResource(table);
+            for (T weather : pending) {
+                batch.addPutItem(weather);
+            }
+
+            BatchWriteResult result = dynamoDbEnhancedClient.batchWriteItem(
+                    BatchWriteItemEnhancedRequest.builder()
+                            .writeBatches(batch.build())
+                            .build());
+            pending = result.unprocessedPutItemsForTable(table);
+        }
+        return pending;
+    }
+
+    private boolean backOff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.example.airline.repository;
+
+import com.example.airline.model.WeatherRollup;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Repository;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Hourly and daily weather aggregates, one partition per location and
+ * resolution, sorted by period start.
+ */
+@Repository
+@Timed(value = "weather.repository", extraTags = {"client", "sync"}, histogram = true)
+public class WeatherRollupRepository {
+    public static final String ROLLUP_TABLE = "WeatherRollup";
+
+    private final DynamoDbTable<WeatherRollup> rollupTable;
+
+    public WeatherRollupRepository(DynamoDbEnhancedClient dynamoDbEnhancedClient) {
+        this.rollupTable = dynamoDbEnhancedClient.table(ROLLUP_TABLE, TableSchema.fromBean(WeatherRollup.class));
+    }
+
+    /**
+     * Rollups whose period starts within {@code [startTime, endTime]}.
+     */
+    public List<WeatherRollup> getRollups(String locationId, WeatherRollup.Resolution resolution,
+                                          long startTime, long endTime) {
+        String series = WeatherRollup.seriesOf(locationId, resolution);
+        QueryConditional queryConditional = QueryConditional
+                .sortBetween(Key.builder().partitionValue(series).sortValue(startTime).build(),
+                           Key.builder().partitionValue(series).sortValue(endTime).build());
+
+        return rollupTable.query(queryConditional)
+                .items()
+                .stream()
+                .collect(Collectors.toList());
+    }
+
+    // Recomputed periods overwrite the previous aggregate
+    public void saveRollup(WeatherRollup rollup) {
+        rollupTable.putItem(rollup);
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.airline.service;
 
+import com.example.airline.config.CacheConfig;
 import com.example.airline.model.Aircraft;
 import com.example.airline.repository.AircraftRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -14,20 +18,34 @@ import java.util.Optional;
 public class AircraftService {
     private final AircraftRepository aircraftRepository;
 
+    @Cacheable(CacheConfig.AIRCRAFT_LIST)
     public List<Aircraft> getAllAircraft() {
         return aircraftRepository.findAll();
     }
 
+    @Cacheable(value = CacheConfig.AIRCRAFT, unless = "#result == null")
     public Optional<Aircraft> getAircraftByCode(String code) {
         return aircraftRepository.findById(code);
     }
 
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.AIRCRAFT, key = "#aircraft.aircraftCode"),
+        @CacheEvict(value = CacheConfig.AIRCRAFT_LIST, allEntries = true)
+    })
     public Aircraft saveAircraft(Aircraft aircraft) {
+        if (aircraft.getVersion() == null) {
+            // Without a version Spring Data would treat an existing aircraft as new
+            aircraftRepository.findVersionById(aircraft.getAircraftCode()).ifPresent(aircraft::setVersion);
+        }
         return aircraftRepository.save(aircraft);
     }
 
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = CacheConfig.AIRCRAFT, key = "#code"),
+        @CacheEvict(value = CacheConfig.AIRCRAFT_LIST, allEntries = true)
+    })
     public void deleteAircraft(String code) {
         aircraftRepository.deleteById(code);
     }
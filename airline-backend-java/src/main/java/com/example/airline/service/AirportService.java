@@ -0,0 +1,22 @@
+package com.example.airline.service;
+
+import com.example.airline.config.CacheConfig;
+import com.example.airline.model.Airport;
+import com.example.airline.repository.AirportRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AirportService {
+    private final AirportRepository airportRepository;
+
+    @Cacheable(value = CacheConfig.AIRPORTS, unless = "#result == null")
+    public Optional<Airport> getAirportByCode(String code) {
+        return airportRepository.findById(code);
+    }
+}
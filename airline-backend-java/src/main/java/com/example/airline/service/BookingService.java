@@ -0,0 +1,53 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.BookingItineraryDTO;
+import com.example.airline.dto.ItineraryRow;
+import com.example.airline.dto.TicketFlightDTO;
+import com.example.airline.dto.TicketItineraryDTO;
+import com.example.airline.repository.BookingRepository;
+import com.example.airline.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookingService {
+    private final BookingRepository bookingRepository;
+    private final TicketRepository ticketRepository;
+
+    /**
+     * Loads a booking and its full itinerary in two statements regardless of
+     * how many tickets and legs it has: the booking row, then one joined
+     * projection of tickets, flights, airports and aircraft.
+     */
+    public Optional<BookingItineraryDTO> getItinerary(String bookRef) {
+        return bookingRepository.findById(bookRef)
+            .map(booking -> new BookingItineraryDTO(
+                booking.getBookRef(),
+                booking.getBookDate(),
+                booking.getTotalAmount(),
+                groupByTicket(ticketRepository.findItineraryRows(bookRef))));
+    }
+
+    private List<TicketItineraryDTO> groupByTicket(List<ItineraryRow> rows) {
+        // Rows arrive ordered by ticket, so insertion order keeps tickets and legs sorted
+        Map<String, TicketItineraryDTO> tickets = new LinkedHashMap<>();
+        for (ItineraryRow row : rows) {
+            TicketItineraryDTO ticket = tickets.computeIfAbsent(row.getTicketNo(), ticketNo ->
+                new TicketItineraryDTO(ticketNo, row.getPassengerId(), row.getPassengerName(),
+                    row.getContactData(), new ArrayList<>()));
+            if (row.getFlight() != null) {
+                ticket.getFlights().add(new TicketFlightDTO(row.getFareConditions(), row.getAmount(), row.getFlight()));
+            }
+        }
+        return new ArrayList<>(tickets.values());
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightStatusEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans committed flight changes out to Server-Sent Events subscribers.
+ * <p>
+ * Publishing never blocks the committing thread: each event is serialized
+ * once and offered to a bounded per-subscriber queue, which a small dispatcher
+ * pool drains onto the connection. A subscriber whose queue fills up is
+ * dropped rather than buffered without limit; the client can reconnect and
+ * re-read current state from the list endpoints.
+ * <p>
+ * Servlet writes block, so dispatchers hand each batch of frames to a bounded
+ * writer pool and never wait for it. A subscriber keeps at most one write in
+ * flight; its frames stay queued until that write finishes, and a write still
+ * unfinished after the send timeout gets the subscriber dropped. The writer
+ * thread stays blocked until Tomcat's write timeout fails the write, so
+ * stalled clients can occupy at most the writer pool.
+ */
+@Slf4j
+@Service
+public class FlightEventStream {
+    static final String EVENT_NAME = "flight";
+
+    private final ObjectMapper objectMapper;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+    private final ExecutorService dispatcher;
+    // Each subscriber has at most one write queued or running, so the queue is bounded by the subscriber cap
+    private final ExecutorService writer;
+    private final Counter evictions;
+
+    public FlightEventStream(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${flight-stream.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${flight-stream.queue-capacity:256}") int queueCapacity,
+                             @Value("${flight-stream.dispatcher-threads:4}") int dispatcherThreads,
+                             @Value("${flight-stream.writer-threads:32}") int writerThreads,
+                             @Value("${flight-stream.timeout:PT30M}") Duration timeout,
+                             @Value("${flight-stream.send-timeout:PT5S}") Duration sendTimeout) {
+        this.objectMapper = objectMapper;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads,
+            new CustomizableThreadFactory("flight-stream-"));
+        this.writer = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(maxSubscribers), new CustomizableThreadFactory("flight-stream-writer-"));
+        Gauge.builder("flights.stream.subscribers", subscribers, Set::size)
+            .description("Open flight event streams")
+            .register(meterRegistry);
+        this.evictions = Counter.builder("flights.stream.evictions")
+            .description("Subscribers dropped for falling too far behind or stalling a write")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of changes to flights touching {@code airportCode} (as
+     * origin or destination) and/or to a single flight. Empty when the
+     * subscriber limit has been reached.
+     */
+    public Optional<SseEmitter> subscribe(String airportCode, Integer flightId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return Optional.empty();
+        }
+        Subscriber subscriber = new Subscriber(newEmitter(timeoutMillis), airportCode, flightId);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return Optional.of(subscriber.emitter);
+    }
+
+    @TransactionalEventListener
+    public void onFlightChanged(FlightStatusEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame;
+        try {
+            frame = SseEmitter.event()
+                .id(Long.toString(eventIds.incrementAndGet()))
+                .name(EVENT_NAME)
+                .data(objectMapper.writeValueAsString(event), MediaType.APPLICATION_JSON)
+                .build();
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing event for flight {}: {}", event.getFlightId(), e.getMessage(), e);
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and surfaces dead clients,
+     * whose next write fails.
+     */
+    @Scheduled(fixedRateString = "${flight-stream.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        subscribers.forEach(subscriber -> subscriber.offer(frame));
+    }
+
+    /**
+     * Drops subscribers whose write has been running past the send timeout,
+     * including ones with nothing new queued. Only reads timestamps, so a
+     * stalled connection can't hold it up.
+     */
+    @Scheduled(fixedRateString = "${flight-stream.stall-check-interval:PT1S}")
+    public void evictStalledWriters() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.evictIfStalled(now));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Overridden in tests to observe or stall writes
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        writer.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final String airportCode;
+        final Integer flightId;
+        final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        final AtomicBoolean draining = new AtomicBoolean();
+        // Set while a batch is queued for or running on a writer thread
+        final AtomicBoolean writing = new AtomicBoolean();
+        volatile long writeStarted;
+        volatile Future<?> write;
+        volatile boolean evicted;
+        volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String airportCode, Integer flightId) {
+            this.emitter = emitter;
+            this.airportCode = airportCode;
+            this.flightId = flightId;
+        }
+
+        boolean matches(FlightStatusEvent event) {
+            return (flightId == null || flightId.equals(event.getFlightId()))
+                && (airportCode == null || event.involves(airportCode));
+        }
+
+        void offer(Set<DataWithMediaType> frame) {
+            if (evicted) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                evict();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // The emitter is only touched from dispatcher and writer threads, so a
+        // stalled connection can never block the publisher
+        void evict() {
+            if (subscribers.remove(this)) {
+                evicted = true;
+                queue.clear();
+                evictions.increment();
+                log.debug("Dropping flight stream subscriber after {} undelivered events", queueCapacity);
+                scheduleDrain();
+            }
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    subscribers.remove(this);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                if (writing.get()) {
+                    // The writer schedules another drain once it finishes
+                    evictIfStalled(System.nanoTime());
+                    return;
+                }
+                if (evicted) {
+                    if (!closed) {
+                        closed = true;
+                        emitter.complete();
+                    }
+                    return;
+                }
+                List<Set<DataWithMediaType>> frames = new ArrayList<>();
+                if (queue.drainTo(frames) > 0) {
+                    send(frames);
+                }
+            } catch (Exception e) {
+                // Client went away; the container completes the emitter
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Picks up frames, an eviction or a finished write that arrived after the last poll
+            if (!writing.get() && (evicted ? !closed : !queue.isEmpty())) {
+                scheduleDrain();
+            }
+        }
+
+        void send(List<Set<DataWithMediaType>> frames) {
+            // Stamped first so the stall check never pairs the flag with an old start
+            writeStarted = System.nanoTime();
+            writing.set(true);
+            try {
+                write = writer.submit(() -> {
+                    try {
+                        for (Set<DataWithMediaType> frame : frames) {
+                            emitter.send(frame);
+                        }
+                    } catch (Exception e) {
+                        close();
+                    } finally {
+                        writing.set(false);
+                        scheduleDrain();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                writing.set(false);
+                close();
+            }
+        }
+
+        void evictIfStalled(long now) {
+            if (!writing.get() || now - writeStarted < sendTimeoutNanos) {
+                return;
+            }
+            if (subscribers.remove(this)) {
+                evictions.increment();
+                log.debug("Dropping flight stream subscriber after a write stalled for {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            }
+            // The writer still holds the emitter's lock, so it is not completed here
+            close();
+            Future<?> stalled = write;
+            if (stalled != null) {
+                stalled.cancel(true);
+            }
+        }
+
+        void close() {
+            closed = true;
+            evicted = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+    }
+}
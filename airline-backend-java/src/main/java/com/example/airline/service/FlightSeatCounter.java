@@ -0,0 +1,177 @@
+package com.example.airline.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Seats left on one flight. Reservations decrement the available count with a
+ * compare-and-set loop that never goes below zero, so concurrent bookings can't
+ * oversell without taking a lock. Per-fare sold counts are {@link LongAdder}s;
+ * they are informational and never gate a reservation.
+ * <p>
+ * The count shares one word with a generation bumped by every reservation and
+ * release, so a {@link #stamp} taken before reading the database tells whether
+ * anything touched the counter since, even if the count came back to the same
+ * number. The top bit marks a counter evicted from the inventory.
+ */
+public class FlightSeatCounter {
+    private static final long RETIRED = Long.MIN_VALUE;
+    private static final long GENERATION_MASK = 0x7FFFFFFFL;
+
+    private final int seatsTotal;
+    // RETIRED | generation (31 bits) | seats available (32 bits)
+    private final AtomicLong state;
+    // Reservations and releases applied, or about to be, whose transaction hasn't completed yet
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<String, LongAdder> seatsSold = new ConcurrentHashMap<>();
+
+    public FlightSeatCounter(int seatsTotal, Map<String, Long> seatsSold) {
+        this.seatsTotal = seatsTotal;
+        long sold = 0;
+        for (Map.Entry<String, Long> entry : seatsSold.entrySet()) {
+            sold(entry.getKey()).add(entry.getValue());
+            sold += entry.getValue();
+        }
+        this.state = new AtomicLong((int) Math.max(0, seatsTotal - sold));
+    }
+
+    /**
+     * Takes a seat unless none are left or the counter has been {@link #retire retired};
+     * callers check {@link #isRetired} to tell the two apart.
+     */
+    public boolean tryReserve(String fareConditions) {
+        pending.incrementAndGet();
+        long current;
+        do {
+            current = state.get();
+            if (isRetired(current) || availableOf(current) <= 0) {
+                pending.decrementAndGet();
+                return false;
+            }
+        } while (!state.compareAndSet(current, next(current, availableOf(current) - 1)));
+        sold(fareConditions).increment();
+        return true;
+    }
+
+    /**
+     * The reserved seat was written to the database.
+     */
+    public void confirm() {
+        pending.decrementAndGet();
+    }
+
+    /**
+     * The reserved seat was never written; hand it back.
+     */
+    public void rollback(String fareConditions) {
+        release(fareConditions);
+        pending.decrementAndGet();
+    }
+
+    /**
+     * A cancellation is about to commit; holds off reconciliation until
+     * {@link #completeRelease} runs.
+     */
+    public void beginRelease() {
+        pending.incrementAndGet();
+    }
+
+    public void completeRelease(String fareConditions, boolean committed) {
+        if (committed) {
+            release(fareConditions);
+        }
+        pending.decrementAndGet();
+    }
+
+    /**
+     * A committed seat was cancelled.
+     */
+    public void release(String fareConditions) {
+        sold(fareConditions).decrement();
+        long current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, next(current, availableOf(current) + 1)));
+    }
+
+    public int getSeatsTotal() {
+        return seatsTotal;
+    }
+
+    public int getSeatsAvailable() {
+        return availableOf(state.get());
+    }
+
+    public Map<String, Long> getSeatsSold() {
+        return seatsSold.entrySet().stream()
+            .filter(entry -> entry.getValue().sum() > 0)
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    boolean isIdle() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * The count and generation as of now, for {@link #resync} and {@link #retire};
+     * null while a reservation or release is in flight, since the database may
+     * not agree with the counter until it completes.
+     */
+    Long stamp() {
+        // Read before the idle check: anything applied after it bumps the generation
+        long current = state.get();
+        return isIdle() ? current : null;
+    }
+
+    static int availableOf(long stamp) {
+        return (int) stamp;
+    }
+
+    boolean isRetired() {
+        return isRetired(state.get());
+    }
+
+    /**
+     * Brings this counter in line with {@code actual} if nothing has touched it
+     * since {@code stamp} was taken. Returns false when a reservation or
+     * cancellation got in between; the next pass retries.
+     */
+    boolean resync(long stamp, FlightSeatCounter actual) {
+        if (isRetired(stamp) || !state.compareAndSet(stamp, next(stamp, actual.getSeatsAvailable()))) {
+            return false;
+        }
+        seatsSold.keySet().retainAll(actual.seatsSold.keySet());
+        actual.seatsSold.forEach((fare, sold) -> {
+            LongAdder counter = sold(fare);
+            counter.reset();
+            counter.add(sold.sum());
+        });
+        return true;
+    }
+
+    /**
+     * Stops further reservations if nothing has touched the counter since
+     * {@code stamp} was taken, so it can be dropped from the inventory without
+     * losing a seat taken concurrently.
+     */
+    boolean retire(long stamp) {
+        return !isRetired(stamp) && state.compareAndSet(stamp, stamp | RETIRED);
+    }
+
+    private static boolean isRetired(long state) {
+        return (state & RETIRED) != 0;
+    }
+
+    private static long next(long state, int available) {
+        long generation = ((state >>> 32) + 1) & GENERATION_MASK;
+        return (state & RETIRED) | (generation << 32) | (available & 0xFFFFFFFFL);
+    }
+
+    private LongAdder sold(String fareConditions) {
+        return seatsSold.computeIfAbsent(fareConditions, fare -> new LongAdder());
+    }
+}
@@ -1,73 +1,283 @@
 package com.example.airline.service;
 
+import com.example.airline.dto.FlightBatchResult;
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightPage;
+import com.example.airline.dto.FlightQuery;
+import com.example.airline.dto.FlightStatusEvent;
+import com.example.airline.exception.FlightStatusConflictException;
+import com.example.airline.model.Airport;
 import com.example.airline.model.Flight;
-import com.example.airline.repository.FlightRepository;
-import com.example.airline.repository.AirportRepository;
 import com.example.airline.repository.AircraftRepository;
+import com.example.airline.repository.AirportRepository;
+import com.example.airline.repository.FlightRepository;
+import com.example.airline.repository.FlightSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class FlightService {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10000;
+
     private final FlightRepository flightRepository;
     private final AirportRepository airportRepository;
     private final AircraftRepository aircraftRepository;
+    private final AirportService airportService;
+    private final AircraftService aircraftService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FlightWindowIndex flightWindowIndex;
+
+    public FlightPage getAllFlights(String cursor, int limit) {
+        return findPage(null, cursor, limit);
+    }
+
+    public Optional<FlightDTO> getFlightById(Integer id) {
+        return flightRepository.findFlightDTOById(id);
+    }
 
-    public List<Flight> getAllFlights() {
-        return flightRepository.findAll();
+    public FlightPage getFlightsByDepartureAirport(String airportCode, String cursor, int limit) {
+        return findPage(FlightSpecifications.departsFrom(airportCode), cursor, limit);
     }
 
-    public Optional<Flight> getFlightById(Integer id) {
-        return flightRepository.findById(id);
+    public FlightPage getFlightsByArrivalAirport(String airportCode, String cursor, int limit) {
+        return findPage(FlightSpecifications.arrivesAt(airportCode), cursor, limit);
     }
 
-    public List<Flight> getFlightsByDepartureAirport(String airportCode) {
-        return flightRepository.findByDepartureAirport_AirportCode(airportCode);
+    /**
+     * Windows inside the {@link FlightWindowIndex} horizon are answered from
+     * memory, with the same ordering and cursors as the database path.
+     */
+    public FlightPage getFlightsByDateRange(LocalDateTime start, LocalDateTime end, String cursor, int limit) {
+        checkLimit(limit);
+        FlightCursor after = cursor != null ? FlightCursor.decode(cursor) : null;
+        Optional<List<FlightDTO>> indexed = flightWindowIndex.find(start, end, after, limit + 1);
+        if (indexed.isPresent()) {
+            return toPage(indexed.get(), limit);
+        }
+        return findPage(FlightSpecifications.departsBetween(start, end), cursor, limit);
+    }
+
+    public FlightPage getFlightsByStatus(String status, String cursor, int limit) {
+        return findPage(FlightSpecifications.hasStatus(status), cursor, limit);
+    }
+
+    public FlightPage queryFlights(FlightQuery query, String cursor, int limit) {
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return findPage(FlightSpecifications.matching(query), cursor, limit);
+    }
+
+    /**
+     * Streams every flight to {@code consumer} without materialising the result
+     * set; rows are fetched from the driver in fixed-size chunks.
+     */
+    public void exportFlights(Consumer<FlightDTO> consumer) {
+        try (Stream<FlightDTO> flights = flightRepository.streamAllFlightDTOs()) {
+            flights.forEach(consumer);
+        }
+    }
+
+    private FlightPage findPage(Specification<Flight> spec, String cursor, int limit) {
+        checkLimit(limit);
+        FlightCursor after = cursor != null ? FlightCursor.decode(cursor) : null;
+
+        // Fetch one extra row to learn whether another page exists
+        return toPage(flightRepository.findFlightDTOs(spec, after, limit + 1), limit);
     }
 
-    public List<Flight> getFlightsByArrivalAirport(String airportCode) {
-        return flightRepository.findByArrivalAirport_AirportCode(airportCode);
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
     }
 
-    public List<Flight> getFlightsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return flightRepository.findFlightsInDateRange(start, end);
+    private static FlightPage toPage(List<FlightDTO> flights, int limit) {
+        if (flights.size() <= limit) {
+            return new FlightPage(flights, null);
+        }
+        List<FlightDTO> page = flights.subList(0, limit);
+        return new FlightPage(page, FlightCursor.after(page.get(limit - 1)).encode());
     }
 
-    public List<Flight> getFlightsByStatus(String status) {
-        return flightRepository.findByStatus(status);
+    /**
+     * Cheap primary-key lookup of the version behind {@link #getFlightById},
+     * used as its ETag so unchanged flights can be answered with 304.
+     */
+    public Optional<String> getFlightVersion(Integer id) {
+        return flightRepository.findDTOVersionById(id);
     }
 
     @Transactional
     public Flight saveFlight(Flight flight) {
-        // Validate references exist
-        airportRepository.findById(flight.getDepartureAirport().getAirportCode())
+        // Validate references exist (served from the reference data cache)
+        airportService.getAirportByCode(flight.getDepartureAirport().getAirportCode())
             .orElseThrow(() -> new IllegalArgumentException("Departure airport not found"));
         
-        airportRepository.findById(flight.getArrivalAirport().getAirportCode())
+        airportService.getAirportByCode(flight.getArrivalAirport().getAirportCode())
             .orElseThrow(() -> new IllegalArgumentException("Arrival airport not found"));
         
-        aircraftRepository.findById(flight.getAircraft().getAircraftCode())
+        aircraftService.getAircraftByCode(flight.getAircraft().getAircraftCode())
             .orElseThrow(() -> new IllegalArgumentException("Aircraft not found"));
-        
-        return flightRepository.save(flight);
+
+        // Aircraft is versioned, so a bare instance carrying only its code would look transient
+        flight.setAircraft(aircraftRepository.getReferenceById(flight.getAircraft().getAircraftCode()));
+
+        if (flight.getFlightId() != null && flight.getVersion() == null) {
+            // Unversioned update: overwrite whatever is current
+            flight.setVersion(flightRepository.findVersionById(flight.getFlightId())
+                .orElseThrow(() -> new IllegalArgumentException("Flight not found")));
+        }
+        // Flushed here so a stale version surfaces as an optimistic locking failure
+        Flight saved = flightRepository.saveAndFlush(flight);
+        // Delivered to stream subscribers only if the transaction commits
+        eventPublisher.publishEvent(FlightStatusEvent.of(FlightStatusEvent.Type.SAVED, saved));
+        return saved;
+    }
+
+    /**
+     * Inserts a batch of new flights. Referenced codes are checked with one IN
+     * query per table. Rows that fail validation are rejected individually, and
+     * the rest are inserted through JDBC batches.
+     */
+    @Transactional
+    public List<FlightBatchResult> saveFlights(List<Flight> flights) {
+        if (flights.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not exceed " + MAX_BATCH_SIZE + " flights");
+        }
+
+        Set<String> airportCodes = new HashSet<>();
+        Set<String> aircraftCodes = new HashSet<>();
+        for (Flight flight : flights) {
+            addIfPresent(airportCodes, codeOf(flight.getDepartureAirport()));
+            addIfPresent(airportCodes, codeOf(flight.getArrivalAirport()));
+            addIfPresent(aircraftCodes, flight.getAircraft() != null ? flight.getAircraft().getAircraftCode() : null);
+        }
+        Set<String> knownAirports = airportCodes.isEmpty()
+            ? Set.of() : airportRepository.findExistingCodes(airportCodes);
+        Set<String> knownAircraft = aircraftCodes.isEmpty()
+            ? Set.of() : aircraftRepository.findExistingCodes(aircraftCodes);
+
+        FlightBatchResult[] results = new FlightBatchResult[flights.size()];
+        List<Flight> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < flights.size(); i++) {
+            String error = validateNewFlight(flights.get(i), knownAirports, knownAircraft);
+            if (error != null) {
+                results[i] = FlightBatchResult.rejected(i, error);
+            } else {
+                accepted.add(flights.get(i));
+                acceptedIndexes.add(i);
+            }
+        }
+
+        flightRepository.persistInBatches(accepted);
+        for (int i = 0; i < accepted.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            results[index] = FlightBatchResult.created(index, accepted.get(i).getFlightId());
+            eventPublisher.publishEvent(FlightStatusEvent.of(FlightStatusEvent.Type.SAVED, accepted.get(i)));
+        }
+        return Arrays.asList(results);
     }
 
+    private static void addIfPresent(Set<String> codes, String code) {
+        if (code != null) {
+            codes.add(code);
+        }
+    }
+
+    private static String codeOf(Airport airport) {
+        return airport != null ? airport.getAirportCode() : null;
+    }
+
+    private static String validateNewFlight(Flight flight, Set<String> knownAirports, Set<String> knownAircraft) {
+        if (flight.getFlightId() != null) {
+            return "flightId must not be set for new flights";
+        }
+        if (flight.getFlightNo() == null || flight.getStatus() == null
+                || flight.getScheduledDeparture() == null || flight.getScheduledArrival() == null) {
+            return "flightNo, status, scheduledDeparture and scheduledArrival are required";
+        }
+        if (!flight.getScheduledArrival().isAfter(flight.getScheduledDeparture())) {
+            return "scheduledArrival must be after scheduledDeparture";
+        }
+        // Checked before the lookups: immutable sets reject contains(null)
+        if (codeOf(flight.getDepartureAirport()) == null || codeOf(flight.getArrivalAirport()) == null) {
+            return "departureAirport and arrivalAirport codes are required";
+        }
+        if (flight.getAircraft() == null || flight.getAircraft().getAircraftCode() == null) {
+            return "aircraft code is required";
+        }
+        if (!knownAirports.contains(flight.getDepartureAirport().getAirportCode())) {
+            return "Departure airport not found";
+        }
+        if (!knownAirports.contains(flight.getArrivalAirport().getAirportCode())) {
+            return "Arrival airport not found";
+        }
+        if (!knownAircraft.contains(flight.getAircraft().getAircraftCode())) {
+            return "Aircraft not found";
+        }
+        return null;
+    }
+
+    /**
+     * Deletes the flight if it exists. Loaded first, as {@code deleteById}
+     * would anyway, so the event can say which airports it served.
+     */
     @Transactional
     public void deleteFlight(Integer id) {
-        flightRepository.deleteById(id);
+        flightRepository.findById(id).ifPresent(flight -> {
+            flightRepository.delete(flight);
+            eventPublisher.publishEvent(FlightStatusEvent.of(FlightStatusEvent.Type.DELETED, flight));
+        });
     }
 
+    /**
+     * Read-modify-write guarded by the flight's version: if another update
+     * commits in between, this one fails instead of silently overwriting it.
+     */
     @Transactional
     public Flight updateFlightStatus(Integer id, String status) {
         Flight flight = flightRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Flight not found"));
         flight.setStatus(status);
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.saveAndFlush(flight);
+        eventPublisher.publishEvent(FlightStatusEvent.of(FlightStatusEvent.Type.STATUS_CHANGED, saved));
+        return saved;
+    }
+
+    /**
+     * Moves a flight from {@code expectedStatus} to {@code status} with a single
+     * conditional UPDATE, without loading the entity. Concurrent transitions
+     * never block on each other; all but the first see the new status and fail.
+     */
+    @Transactional
+    public FlightDTO transitionFlightStatus(Integer id, String expectedStatus, String status) {
+        if (flightRepository.updateStatusIfCurrent(id, expectedStatus, status) == 0) {
+            if (!flightRepository.existsById(id)) {
+                throw new IllegalArgumentException("Flight not found");
+            }
+            throw new FlightStatusConflictException(id, expectedStatus);
+        }
+        FlightDTO flight = flightRepository.findFlightDTOById(id).orElseThrow();
+        eventPublisher.publishEvent(FlightStatusEvent.of(FlightStatusEvent.Type.STATUS_CHANGED, flight));
+        return flight;
     }
 }
@@ -0,0 +1,94 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightPage;
+import com.example.airline.dto.FlightQuery;
+import com.example.airline.dto.FlightWithWeatherDTO;
+import com.example.airline.dto.FlightWithWeatherPage;
+import com.example.airline.model.Weather;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Joins flights from Postgres with the latest DynamoDB weather at both ends.
+ * Weather lookups are asynchronous and run concurrently. When a filter pins
+ * an airport, or a single flight's airports are already in the
+ * {@link FlightWindowIndex}, those lookups start before the flight query, so
+ * the two overlap.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightWeatherService {
+    private final FlightService flightService;
+    private final WeatherService weatherService;
+    private final FlightWindowIndex flightWindowIndex;
+
+    /**
+     * Flights outside the index horizon are read first, since their airports
+     * are only known from the row.
+     */
+    public CompletableFuture<Optional<FlightWithWeatherDTO>> getFlightWithWeather(Integer id) {
+        Map<String, CompletableFuture<Weather>> lookups = new HashMap<>();
+        for (String airportCode : flightWindowIndex.airportsOf(id)) {
+            lookups.computeIfAbsent(airportCode, this::lookupWeather);
+        }
+
+        // Airports changed since indexing are looked up once the row is read
+        Optional<FlightDTO> flight = flightService.getFlightById(id);
+        if (flight.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return enrich(List.of(flight.get()), lookups)
+            .thenApply(enriched -> Optional.of(enriched.get(0)));
+    }
+
+    /**
+     * @return the enriched page; the cursor is the same one the plain query returns
+     */
+    public CompletableFuture<FlightWithWeatherPage> queryFlightsWithWeather(FlightQuery query, String cursor, int limit) {
+        Map<String, CompletableFuture<Weather>> lookups = new HashMap<>();
+        if (query.getOrigin() != null) {
+            lookups.put(query.getOrigin(), lookupWeather(query.getOrigin()));
+        }
+        if (query.getDestination() != null) {
+            lookups.put(query.getDestination(), lookupWeather(query.getDestination()));
+        }
+
+        FlightPage page = flightService.queryFlights(query, cursor, limit);
+        return enrich(page.getFlights(), lookups)
+            .thenApply(flights -> new FlightWithWeatherPage(flights, page.getNextCursor()));
+    }
+
+    private CompletableFuture<List<FlightWithWeatherDTO>> enrich(
+            List<FlightDTO> flights, Map<String, CompletableFuture<Weather>> lookups) {
+        for (FlightDTO flight : flights) {
+            lookups.computeIfAbsent(flight.getDepartureAirportCode(), this::lookupWeather);
+            lookups.computeIfAbsent(flight.getArrivalAirportCode(), this::lookupWeather);
+        }
+
+        return CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0]))
+            .thenApply(done -> flights.stream()
+                .map(flight -> new FlightWithWeatherDTO(flight,
+                    lookups.get(flight.getDepartureAirportCode()).join(),
+                    lookups.get(flight.getArrivalAirportCode()).join()))
+                .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<Weather> lookupWeather(String airportCode) {
+        // Missing weather must not fail the flight response
+        return weatherService.getLatestWeatherAsync(airportCode)
+            .exceptionally(ex -> {
+                log.warn("Weather lookup failed for {}: {}", airportCode, ex.getMessage());
+                return null;
+            });
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightStatusEvent;
+import com.example.airline.dto.FlightVersionRow;
+import com.example.airline.dto.VersionedFlightRow;
+import com.example.airline.repository.FlightRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Upcoming flights held in memory in the (scheduledDeparture, flightId) order
+ * of the paginated endpoints, so date-range searches inside the horizon are
+ * answered without a query.
+ * <p>
+ * Flights departing between now minus the lookback and now plus the horizon
+ * are loaded on startup. Saves and status changes made through
+ * {@link FlightService} are applied as they commit. A periodic poll of
+ * (id, version) pairs slides the window forward and picks up everything else:
+ * batch inserts, deletes and writes from other instances. Searches that reach
+ * outside the covered window go to the database.
+ * <p>
+ * Readers never lock, so a search racing an update may briefly see a flight
+ * at both its old and new departure time, or at neither. They get copies, so
+ * nothing they do reaches the index.
+ */
+@Slf4j
+@Service
+public class FlightWindowIndex {
+    // Flights reloaded per IN query during a poll
+    private static final int RELOAD_CHUNK = 1000;
+    private static final Comparator<FlightCursor> ORDER = Comparator
+        .comparing(FlightCursor::getScheduledDeparture)
+        .thenComparing(FlightCursor::getFlightId);
+
+    private final FlightRepository flightRepository;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Duration lookback;
+    private final ConcurrentSkipListMap<FlightCursor, FlightDTO> byDeparture = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+    // Airport names, codes, models and statuses repeat across thousands of flights
+    private final Map<String, String> strings = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    // Bumped under writeLock by every put and remove, so a poll can tell what changed after its snapshot
+    private volatile long writes;
+    // Guarded by writeLock; when each flight was last removed, kept until a later poll has seen it
+    private final Map<Integer, Long> removals = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    // Null until the first load completes
+    private volatile Window window;
+
+    public FlightWindowIndex(FlightRepository flightRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${flight-index.enabled:true}") boolean enabled,
+                             @Value("${flight-index.horizon:P2D}") Duration horizon,
+                             @Value("${flight-index.lookback:PT1H}") Duration lookback) {
+        this.flightRepository = flightRepository;
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.lookback = lookback;
+        Gauge.builder("flights.index.size", byId, Map::size)
+            .description("Flights held by the departure window index")
+            .register(meterRegistry);
+        this.hits = searches(meterRegistry, "hit");
+        this.misses = searches(meterRegistry, "miss");
+    }
+
+    private static Counter searches(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("flights.index.searches")
+            .description("Date-range searches answered from the index (hit) or sent to the database (miss)")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Up to {@code count} flights departing in {@code [start, end]} after
+     * {@code after}, in keyset order; empty when the range is not covered.
+     */
+    public Optional<List<FlightDTO>> find(LocalDateTime start, LocalDateTime end, FlightCursor after, int count) {
+        Window current = window;
+        if (current == null || start.isBefore(current.from) || end.isAfter(current.to)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        FlightCursor from = new FlightCursor(start, Integer.MIN_VALUE);
+        boolean fromInclusive = true;
+        if (after != null && ORDER.compare(after, from) >= 0) {
+            from = after;
+            fromInclusive = false;
+        }
+        FlightCursor to = new FlightCursor(end, Integer.MAX_VALUE);
+        if (ORDER.compare(from, to) > 0) {
+            return Optional.of(List.of());
+        }
+        List<FlightDTO> flights = new ArrayList<>(Math.min(count, 256));
+        for (FlightDTO flight : byDeparture.subMap(from, fromInclusive, to, true).values()) {
+            if (flights.size() == count) {
+                break;
+            }
+            flights.add(copy(flight));
+        }
+        return Optional.of(flights);
+    }
+
+    /**
+     * Origin and destination of an indexed flight, read without a query so
+     * work keyed on them can start before the flight itself is loaded. Empty
+     * when the flight is not indexed.
+     */
+    public List<String> airportsOf(Integer flightId) {
+        Entry entry = byId.get(flightId);
+        FlightDTO flight = entry == null ? null : byDeparture.get(entry.key);
+        if (flight == null) {
+            return List.of();
+        }
+        return List.of(flight.getDepartureAirportCode(), flight.getArrivalAirportCode());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            refresh();
+            log.info("Loaded {} flights into the departure window index", byId.size());
+        } catch (Exception e) {
+            log.error("Error loading flight window index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Slides the window to the current time and reloads every flight in it
+     * whose version differs from the indexed one. The queries run unlocked;
+     * only applying their result takes the write lock, where a row is skipped
+     * if a listener has meanwhile applied the same or a later version, or
+     * removed the flight.
+     */
+    @Scheduled(fixedDelayString = "${flight-index.refresh-interval:PT30S}",
+               initialDelayString = "${flight-index.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minus(lookback);
+        LocalDateTime to = now.plus(horizon);
+        long snapshot = writes;
+
+        Set<Integer> inWindow = new HashSet<>();
+        List<Integer> changed = new ArrayList<>();
+        for (FlightVersionRow row : flightRepository.findVersionsDepartingBetween(from, to)) {
+            inWindow.add(row.getFlightId());
+            Entry entry = byId.get(row.getFlightId());
+            if (entry == null || !entry.version.equals(row.getVersion())) {
+                changed.add(row.getFlightId());
+            }
+        }
+        List<VersionedFlightRow> reloaded = new ArrayList<>(changed.size());
+        for (int i = 0; i < changed.size(); i += RELOAD_CHUNK) {
+            reloaded.addAll(flightRepository.findVersionedFlightDTOsByIds(
+                changed.subList(i, Math.min(i + RELOAD_CHUNK, changed.size()))));
+        }
+
+        synchronized (writeLock) {
+            Window previous = window;
+            // Narrow first, so nothing is served from the part being dropped
+            if (previous != null) {
+                window = new Window(from, previous.to.isBefore(to) ? previous.to : to);
+            }
+            for (VersionedFlightRow row : reloaded) {
+                FlightDTO flight = row.getFlight();
+                Entry entry = byId.get(flight.getFlightId());
+                // Only a listener that ran after the snapshot can hold something newer than this row
+                boolean stale = entry != null
+                    ? entry.write > snapshot && entry.version >= row.getVersion()
+                    : removals.getOrDefault(flight.getFlightId(), 0L) > snapshot;
+                if (stale) {
+                    continue;
+                }
+                if (flight.getScheduledDeparture().isBefore(from) || flight.getScheduledDeparture().isAfter(to)) {
+                    remove(flight.getFlightId());
+                } else {
+                    put(flight, row.getVersion());
+                }
+            }
+            int removed = 0;
+            for (Map.Entry<Integer, Entry> indexed : new ArrayList<>(byId.entrySet())) {
+                // Entries put after the snapshot came from a later read than it
+                if (!inWindow.contains(indexed.getKey()) && indexed.getValue().write <= snapshot) {
+                    remove(indexed.getKey());
+                    removed++;
+                }
+            }
+            removals.values().removeIf(write -> write <= snapshot);
+            window = new Window(from, to);
+            log.debug("Flight window index refreshed: {} reloaded, {} removed, {} held",
+                reloaded.size(), removed, byId.size());
+        }
+    }
+
+    /**
+     * Applies a committed save or status change right away instead of waiting
+     * for the next poll. The flight is read together with its version, and
+     * never replaces an entry that is already at that version or a later one.
+     */
+    @TransactionalEventListener
+    public void onFlightChanged(FlightStatusEvent event) {
+        if (window == null) {
+            return;
+        }
+        // Runs after commit on the writer's thread; the write itself already succeeded
+        try {
+            Integer flightId = event.getFlightId();
+            Optional<VersionedFlightRow> row = flightRepository.findVersionedFlightDTOById(flightId);
+            synchronized (writeLock) {
+                Entry indexed = byId.get(flightId);
+                if (row.isPresent() && indexed != null && indexed.version >= row.get().getVersion()) {
+                    // Listeners of concurrent writers may run in any order; a newer read already landed
+                    return;
+                }
+                Window current = window;
+                if (row.isPresent()
+                        && !row.get().getFlight().getScheduledDeparture().isBefore(current.from)
+                        && !row.get().getFlight().getScheduledDeparture().isAfter(current.to)) {
+                    put(row.get().getFlight(), row.get().getVersion());
+                } else {
+                    remove(flightId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Error updating flight window index for flight {}: {}",
+                event.getFlightId(), e.getMessage());
+        }
+    }
+
+    // Callers hold writeLock
+    private void put(FlightDTO flight, Integer version) {
+        FlightCursor key = FlightCursor.after(flight);
+        // Published before the old position is dropped, so the flight is never missing
+        byDeparture.put(key, compact(flight));
+        Entry previous = byId.put(flight.getFlightId(), new Entry(key, version, ++writes));
+        if (previous != null && !previous.key.equals(key)) {
+            byDeparture.remove(previous.key);
+        }
+    }
+
+    // Callers hold writeLock
+    private void remove(Integer flightId) {
+        removals.put(flightId, ++writes);
+        Entry entry = byId.remove(flightId);
+        if (entry != null) {
+            byDeparture.remove(entry.key);
+        }
+    }
+
+    private FlightDTO compact(FlightDTO flight) {
+        flight.setDepartureAirportCode(canonical(flight.getDepartureAirportCode()));
+        flight.setArrivalAirportCode(canonical(flight.getArrivalAirportCode()));
+        flight.setDepartureAirportName(canonical(flight.getDepartureAirportName()));
+        flight.setArrivalAirportName(canonical(flight.getArrivalAirportName()));
+        flight.setAircraftCode(canonical(flight.getAircraftCode()));
+        flight.setAircraftModel(canonical(flight.getAircraftModel()));
+        flight.setStatus(canonical(flight.getStatus()));
+        return flight;
+    }
+
+    private static FlightDTO copy(FlightDTO flight) {
+        return new FlightDTO(flight.getFlightId(), flight.getFlightNo(),
+            flight.getScheduledDeparture(), flight.getScheduledArrival(),
+            flight.getDepartureAirportCode(), flight.getArrivalAirportCode(),
+            flight.getStatus(), flight.getAircraftCode(),
+            flight.getActualDeparture(), flight.getActualArrival(),
+            flight.getDepartureAirportName(), flight.getArrivalAirportName(), flight.getAircraftModel());
+    }
+
+    private String canonical(String value) {
+        return value == null ? null : strings.computeIfAbsent(value, v -> v);
+    }
+
+    private static final class Entry {
+        final FlightCursor key;
+        final Integer version;
+        final long write;
+
+        Entry(FlightCursor key, Integer version, long write) {
+            this.key = key;
+            this.version = version;
+            this.write = write;
+        }
+    }
+
+    private static final class Window {
+        final LocalDateTime from;
+        final LocalDateTime to;
+
+        Window(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
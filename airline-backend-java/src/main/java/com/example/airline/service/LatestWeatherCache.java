@@ -0,0 +1,73 @@
+package com.example.airline.service;
+
+import com.example.airline.model.Weather;
+import com.example.airline.repository.WeatherAsyncRepository;
+import com.example.airline.repository.WeatherRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Read-through cache of the newest {@link Weather} reading per location.
+ * Entries refresh in the background once older than the TTL (stale values are
+ * served meanwhile) and expire outright after the max staleness. Concurrent
+ * misses for one location share a single DynamoDB query, and saves update the
+ * entry write-through.
+ */
+@Component
+public class LatestWeatherCache {
+    static final String CACHE_NAME = "latestWeather";
+
+    private final AsyncLoadingCache<String, Weather> cache;
+
+    public LatestWeatherCache(WeatherRepository weatherRepository,
+                              ObjectProvider<WeatherAsyncRepository> weatherAsyncRepository,
+                              @Qualifier("weatherReadExecutor") ExecutorService weatherReadExecutor,
+                              MeterRegistry meterRegistry,
+                              @Value("${weather.latest-cache.ttl:60s}") Duration ttl,
+                              @Value("${weather.latest-cache.max-staleness:5m}") Duration maxStaleness,
+                              @Value("${weather.latest-cache.maximum-size:10000}") long maximumSize) {
+        WeatherAsyncRepository asyncRepository = weatherRepository.isBucketed()
+                ? null : weatherAsyncRepository.getIfAvailable();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(ttl)
+                .expireAfterWrite(maxStaleness)
+                .executor(weatherReadExecutor)
+                .recordStats()
+                .buildAsync((locationId, executor) -> asyncRepository != null
+                        ? asyncRepository.getLatestWeather(locationId)
+                        : CompletableFuture.supplyAsync(() -> weatherRepository.getLatestWeather(locationId), executor));
+
+        // cache.gets{result=hit|miss}, cache.load.duration, cache.evictions, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.synchronous().stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the newest reading, or a future of null when the location has none
+     */
+    public CompletableFuture<Weather> get(String locationId) {
+        return cache.get(locationId);
+    }
+
+    /**
+     * Write-through: replaces the cached entry unless it already holds a newer reading.
+     */
+    public void update(Weather weather) {
+        cache.synchronous().asMap().compute(weather.getLocationId(), (locationId, cached) ->
+                cached == null || cached.getTimestamp() <= weather.getTimestamp() ? weather : cached);
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.RouteItineraryDTO;
+import com.example.airline.dto.RouteLegDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of scheduled flight legs for connection search.
+ * <p>
+ * Airports are numbered {@code 0..n-1} and legs live in parallel primitive
+ * arrays sorted by (origin, departure). Each airport's departures are thus one
+ * contiguous, time-ordered slice: the departure nodes of a time-expanded graph,
+ * reached by binary search rather than stored as objects. Times are epoch
+ * seconds of the schedule's local timestamps.
+ */
+public final class RouteGraph {
+    private static final long UNREACHED = Long.MAX_VALUE;
+
+    private final LocalDateTime coveredFrom;
+    private final LocalDateTime coveredTo;
+    private final String[] airports;
+    private final Map<String, Integer> airportIndex;
+    // Per airport, legs [outStart[a], outStart[a + 1]) depart from it
+    private final int[] outStart;
+    private final int[] legFrom;
+    private final int[] legTo;
+    private final long[] legDeparture;
+    private final long[] legArrival;
+    private final int[] legFlightId;
+    private final String[] legFlightNo;
+
+    /**
+     * A scheduled flight as an edge between two airports.
+     */
+    public static final class Leg {
+        final int flightId;
+        final String flightNo;
+        final String from;
+        final String to;
+        final long departure;
+        final long arrival;
+
+        public Leg(int flightId, String flightNo, String from, String to,
+                   LocalDateTime departure, LocalDateTime arrival) {
+            this.flightId = flightId;
+            this.flightNo = flightNo;
+            this.from = from;
+            this.to = to;
+            this.departure = epochSecond(departure);
+            this.arrival = epochSecond(arrival);
+        }
+    }
+
+    private RouteGraph(LocalDateTime coveredFrom, LocalDateTime coveredTo, String[] airports,
+                       Map<String, Integer> airportIndex, int[] outStart, int[] legFrom, int[] legTo,
+                       long[] legDeparture, long[] legArrival, int[] legFlightId, String[] legFlightNo) {
+        this.coveredFrom = coveredFrom;
+        this.coveredTo = coveredTo;
+        this.airports = airports;
+        this.airportIndex = airportIndex;
+        this.outStart = outStart;
+        this.legFrom = legFrom;
+        this.legTo = legTo;
+        this.legDeparture = legDeparture;
+        this.legArrival = legArrival;
+        this.legFlightId = legFlightId;
+        this.legFlightNo = legFlightNo;
+    }
+
+    /**
+     * @param coveredFrom earliest departure the legs were selected from
+     * @param coveredTo   latest departure the legs were selected from
+     */
+    public static RouteGraph build(Collection<Leg> legs, LocalDateTime coveredFrom, LocalDateTime coveredTo) {
+        Map<String, Integer> airportIndex = new HashMap<>();
+        List<String> airports = new ArrayList<>();
+        for (Leg leg : legs) {
+            for (String code : new String[]{leg.from, leg.to}) {
+                if (airportIndex.putIfAbsent(code, airports.size()) == null) {
+                    airports.add(code);
+                }
+            }
+        }
+
+        Leg[] sorted = legs.toArray(new Leg[0]);
+        Arrays.sort(sorted, Comparator.<Leg>comparingInt(leg -> airportIndex.get(leg.from))
+            .thenComparingLong(leg -> leg.departure));
+
+        int count = sorted.length;
+        int[] outStart = new int[airports.size() + 1];
+        int[] legFrom = new int[count];
+        int[] legTo = new int[count];
+        long[] legDeparture = new long[count];
+        long[] legArrival = new long[count];
+        int[] legFlightId = new int[count];
+        String[] legFlightNo = new String[count];
+        for (int i = 0; i < count; i++) {
+            Leg leg = sorted[i];
+            legFrom[i] = airportIndex.get(leg.from);
+            legTo[i] = airportIndex.get(leg.to);
+            legDeparture[i] = leg.departure;
+            legArrival[i] = leg.arrival;
+            legFlightId[i] = leg.flightId;
+            legFlightNo[i] = leg.flightNo;
+            outStart[legFrom[i] + 1]++;
+        }
+        for (int a = 0; a < airports.size(); a++) {
+            outStart[a + 1] += outStart[a];
+        }
+        return new RouteGraph(coveredFrom, coveredTo, airports.toArray(new String[0]), airportIndex,
+            outStart, legFrom, legTo, legDeparture, legArrival, legFlightId, legFlightNo);
+    }
+
+    public int size() {
+        return legFrom.length;
+    }
+
+    public boolean covers(LocalDateTime departAfter) {
+        return !departAfter.isBefore(coveredFrom) && !departAfter.isAfter(coveredTo);
+    }
+
+    /**
+     * Itineraries from {@code origin} to {@code destination} leaving no earlier
+     * than {@code departAfter}, using at most {@code maxLegs} flights with at
+     * least {@code minConnection} between them, and arriving within
+     * {@code maxTrip} of {@code departAfter}.
+     * <p>
+     * Round {@code k} extends the airports improved in round {@code k - 1} by
+     * one leg, keeping an arrival only if it beats every arrival at that
+     * airport with fewer legs. The result is the Pareto front of
+     * (legs, arrival): the first entry has the fewest legs, the last the
+     * earliest arrival, and each one in between trades a leg for an earlier
+     * arrival.
+     */
+    public List<RouteItineraryDTO> search(String origin, String destination, LocalDateTime departAfter,
+                                          int maxLegs, Duration minConnection, Duration maxTrip) {
+        Integer from = airportIndex.get(origin);
+        Integer to = airportIndex.get(destination);
+        if (from == null || to == null || from.equals(to)) {
+            return List.of();
+        }
+        int n = airports.length;
+        long start = epochSecond(departAfter);
+        long deadline = start + maxTrip.getSeconds();
+        long connection = minConnection.getSeconds();
+
+        long[] best = new long[n];
+        Arrays.fill(best, UNREACHED);
+        best[from] = start;
+        long[] previous = new long[n];
+        Arrays.fill(previous, UNREACHED);
+        previous[from] = start;
+        // via[k][a]: leg that reached airport a in round k
+        int[][] via = new int[maxLegs + 1][];
+        int[] marked = {from};
+        int markedCount = 1;
+
+        List<RouteItineraryDTO> itineraries = new ArrayList<>();
+        for (int round = 1; round <= maxLegs && markedCount > 0; round++) {
+            long[] current = new long[n];
+            Arrays.fill(current, UNREACHED);
+            int[] reachedBy = new int[n];
+            int[] next = new int[n];
+            int nextCount = 0;
+
+            for (int m = 0; m < markedCount; m++) {
+                int airport = marked[m];
+                long ready = round == 1 ? start : previous[airport] + connection;
+                int end = outStart[airport + 1];
+                for (int leg = firstDeparture(airport, ready); leg < end && legDeparture[leg] <= deadline; leg++) {
+                    long arrives = legArrival[leg];
+                    int target = legTo[leg];
+                    // Later than a route with fewer legs, or than the best way to the destination
+                    if (arrives > deadline || arrives >= best[target] || arrives >= best[to]) {
+                        continue;
+                    }
+                    if (current[target] == UNREACHED && target != to) {
+                        next[nextCount++] = target;
+                    }
+                    current[target] = arrives;
+                    reachedBy[target] = leg;
+                    best[target] = arrives;
+                }
+            }
+
+            via[round] = reachedBy;
+            if (current[to] != UNREACHED) {
+                itineraries.add(itinerary(round, to, via));
+            }
+            previous = current;
+            marked = next;
+            markedCount = nextCount;
+        }
+        return itineraries;
+    }
+
+    // First leg out of airport departing at or after time
+    private int firstDeparture(int airport, long time) {
+        int low = outStart[airport];
+        int high = outStart[airport + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (legDeparture[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private RouteItineraryDTO itinerary(int legCount, int destination, int[][] via) {
+        RouteLegDTO[] legs = new RouteLegDTO[legCount];
+        int airport = destination;
+        for (int round = legCount; round >= 1; round--) {
+            int leg = via[round][airport];
+            legs[round - 1] = new RouteLegDTO(legFlightId[leg], legFlightNo[leg],
+                airports[legFrom[leg]], airports[legTo[leg]],
+                localDateTime(legDeparture[leg]), localDateTime(legArrival[leg]));
+            airport = legFrom[leg];
+        }
+        LocalDateTime departure = legs[0].getScheduledDeparture();
+        LocalDateTime arrival = legs[legCount - 1].getScheduledArrival();
+        return new RouteItineraryDTO(legCount - 1, departure, arrival,
+            Duration.between(departure, arrival).toMinutes(), List.of(legs));
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime localDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.airline.service;
+
+import com.example.airline.config.ReplicaRoutingDataSource;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightStatusEvent;
+import com.example.airline.dto.RouteItineraryDTO;
+import com.example.airline.dto.VersionedFlightRow;
+import com.example.airline.exception.RouteGraphUnavailableException;
+import com.example.airline.repository.FlightRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Multi-leg connection search over an in-memory {@link RouteGraph} of bookable
+ * flights departing between now minus a day and now plus the horizon.
+ * <p>
+ * Changes made through {@link FlightService} are queued as they commit and
+ * folded into a fresh graph on the next rebuild tick, so a burst of changes
+ * costs one rebuild. Queued flights are re-read rather than trusted, and a
+ * row older than the leg already held is ignored. A periodic full reload slides the window
+ * forward and picks up writes made elsewhere. Searches always run against a
+ * complete, immutable snapshot.
+ */
+@Slf4j
+@Service
+public class RouteSearchService {
+    public static final int MAX_CONNECTIONS = 3;
+    private static final Duration LOOKBACK = Duration.ofDays(1);
+    // A cold load takes seconds; clients retry rather than fail
+    private static final Duration LOADING_RETRY_AFTER = Duration.ofSeconds(5);
+
+    public enum Optimize { EARLIEST_ARRIVAL, LEAST_LEGS }
+
+    private final FlightRepository flightRepository;
+    private final AirportService airportService;
+    private final Duration horizon;
+    private final Duration maxTrip;
+    private final Timer rebuilds;
+    private final Queue<FlightStatusEvent> pending = new ConcurrentLinkedQueue<>();
+    private final Object writeLock = new Object();
+    // Guarded by writeLock
+    private Map<Integer, RouteGraph.Leg> legs = new HashMap<>();
+    private Map<Integer, Integer> versions = new HashMap<>();
+    private LocalDateTime coveredFrom;
+    private LocalDateTime coveredTo;
+    // Null until the first load completes
+    private volatile RouteGraph graph;
+
+    public RouteSearchService(FlightRepository flightRepository,
+                              AirportService airportService,
+                              MeterRegistry meterRegistry,
+                              @Value("${route-graph.horizon:P7D}") Duration horizon,
+                              @Value("${route-graph.max-trip-duration:P1D}") Duration maxTrip) {
+        this.flightRepository = flightRepository;
+        this.airportService = airportService;
+        this.horizon = horizon;
+        this.maxTrip = maxTrip;
+        Gauge.builder("routes.graph.legs", this, service -> service.graph == null ? 0 : service.graph.size())
+            .description("Flight legs in the connection search graph")
+            .register(meterRegistry);
+        this.rebuilds = Timer.builder("routes.graph.rebuild")
+            .description("Time to rebuild the connection search graph")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Itineraries from {@code from} to {@code to} with at most
+     * {@code maxConnections} changes of aircraft, each on the Pareto front of
+     * (connections, arrival time), ordered by {@code optimize}.
+     */
+    public List<RouteItineraryDTO> search(String from, String to, LocalDateTime departAfter,
+                                          int maxConnections, int minConnectionMinutes, Optimize optimize) {
+        if (maxConnections < 0 || maxConnections > MAX_CONNECTIONS) {
+            throw new IllegalArgumentException("maxConnections must be between 0 and " + MAX_CONNECTIONS);
+        }
+        if (minConnectionMinutes < 0) {
+            throw new IllegalArgumentException("minConnectionMinutes must not be negative");
+        }
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Origin and destination must differ");
+        }
+        for (String code : new String[]{from, to}) {
+            if (airportService.getAirportByCode(code).isEmpty()) {
+                throw new IllegalArgumentException("Unknown airport: " + code);
+            }
+        }
+        RouteGraph current = graph;
+        if (current == null) {
+            throw new RouteGraphUnavailableException(LOADING_RETRY_AFTER);
+        }
+        if (!current.covers(departAfter)) {
+            throw new IllegalArgumentException("departAfter must be within " + horizon + " of now");
+        }
+        List<RouteItineraryDTO> itineraries = current.search(from, to, departAfter, maxConnections + 1,
+            Duration.ofMinutes(minConnectionMinutes), maxTrip);
+        if (optimize == Optimize.EARLIEST_ARRIVAL) {
+            // The Pareto front comes fewest legs first, so this is earliest arrival first
+            itineraries = new ArrayList<>(itineraries);
+            Collections.reverse(itineraries);
+        }
+        return itineraries;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            reload();
+            log.info("Loaded {} flight legs into the route graph", graph.size());
+        } catch (Exception e) {
+            log.error("Error loading route graph: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads every bookable flight in the window and rebuilds the graph.
+     */
+    @Scheduled(fixedDelayString = "${route-graph.reload-interval:PT10M}",
+               initialDelayString = "${route-graph.reload-interval:PT10M}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minus(LOOKBACK);
+        LocalDateTime to = now.plus(horizon);
+        synchronized (writeLock) {
+            Map<Integer, RouteGraph.Leg> loaded = new HashMap<>();
+            Map<Integer, Integer> loadedVersions = new HashMap<>();
+            for (VersionedFlightRow row : flightRepository.findBookableVersionedFlightDTOsDepartingBetween(from, to)) {
+                loaded.put(row.getFlight().getFlightId(), legOf(row.getFlight()));
+                loadedVersions.put(row.getFlight().getFlightId(), row.getVersion());
+            }
+            legs = loaded;
+            versions = loadedVersions;
+            coveredFrom = from;
+            coveredTo = to;
+            // Changes queued while loading are re-read on top
+            applyPending();
+            rebuild();
+        }
+    }
+
+    /**
+     * Folds queued flight changes into the graph, if there are any.
+     */
+    @Scheduled(fixedDelayString = "${route-graph.rebuild-delay:PT1S}")
+    public void rebuildIfChanged() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (coveredFrom != null && applyPending() > 0) {
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Queues a committed change to a flight; it reaches searches on the next
+     * rebuild tick, once the flight has been re-read.
+     */
+    @TransactionalEventListener
+    public void onFlightChanged(FlightStatusEvent event) {
+        pending.add(event);
+    }
+
+    /**
+     * Re-reads every queued flight from the primary and applies what is
+     * current. Events can arrive out of order, and ones queued before a reload
+     * describe rows older than its snapshot, so only the row decides.
+     */
+    // Callers hold writeLock
+    private int applyPending() {
+        Set<Integer> flightIds = new HashSet<>();
+        FlightStatusEvent event;
+        while ((event = pending.poll()) != null) {
+            flightIds.add(event.getFlightId());
+        }
+        if (flightIds.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, VersionedFlightRow> rows = new HashMap<>();
+        boolean previous = ReplicaRoutingDataSource.requirePrimary();
+        try {
+            for (VersionedFlightRow row : flightRepository.findVersionedFlightDTOsByIds(flightIds)) {
+                rows.put(row.getFlight().getFlightId(), row);
+            }
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+        int applied = 0;
+        for (Integer flightId : flightIds) {
+            VersionedFlightRow row = rows.get(flightId);
+            Integer held = versions.get(flightId);
+            if (row != null && held != null && row.getVersion() < held) {
+                continue;
+            }
+            if (row == null) {
+                versions.remove(flightId);
+                if (legs.remove(flightId) != null) {
+                    applied++;
+                }
+                continue;
+            }
+            // Kept for unbookable flights too, so an older bookable row can't bring one back
+            versions.put(flightId, row.getVersion());
+            FlightDTO flight = row.getFlight();
+            if ("Cancelled".equals(flight.getStatus())
+                    || flight.getScheduledDeparture().isBefore(coveredFrom)
+                    || flight.getScheduledDeparture().isAfter(coveredTo)) {
+                if (legs.remove(flightId) != null) {
+                    applied++;
+                }
+            } else {
+                legs.put(flightId, legOf(flight));
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private static RouteGraph.Leg legOf(FlightDTO flight) {
+        return new RouteGraph.Leg(flight.getFlightId(), flight.getFlightNo(),
+            flight.getDepartureAirportCode(), flight.getArrivalAirportCode(),
+            flight.getScheduledDeparture(), flight.getScheduledArrival());
+    }
+
+    // Callers hold writeLock
+    private void rebuild() {
+        graph = rebuilds.record(() -> RouteGraph.build(legs.values(), coveredFrom, coveredTo));
+        log.debug("Route graph rebuilt with {} legs", graph.size());
+    }
+}
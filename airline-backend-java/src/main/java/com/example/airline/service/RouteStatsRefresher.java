@@ -0,0 +1,41 @@
+package com.example.airline.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds {@code route_daily_stats} on a fixed delay. CONCURRENTLY lets
+ * dashboards keep reading the previous contents during the rebuild, and only
+ * rows that changed are written. A transaction-scoped advisory lock makes
+ * sure only one instance refreshes at a time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "route-stats.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class RouteStatsRefresher {
+    // Arbitrary key shared by every instance of the app
+    private static final long REFRESH_LOCK_KEY = 0x726f757465L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${route-stats.refresh.interval:PT15M}",
+               initialDelayString = "${route-stats.refresh.interval:PT15M}")
+    public void refresh() {
+        Boolean locked = jdbcTemplate.queryForObject(
+            "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, REFRESH_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Route stats refresh already running elsewhere, skipping");
+            return;
+        }
+        long start = System.nanoTime();
+        jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY route_daily_stats");
+        log.info("Refreshed route_daily_stats in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
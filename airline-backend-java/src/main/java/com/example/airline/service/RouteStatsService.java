@@ -0,0 +1,44 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.RouteStatsDTO;
+import com.example.airline.repository.RouteStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class RouteStatsService {
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366;
+
+    private final RouteStatsRepository routeStatsRepository;
+
+    public List<RouteStatsDTO> getRouteTotals(LocalDate from, LocalDate to, String origin, String destination) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        validateRange(start, end);
+        return routeStatsRepository.findRouteTotals(start, end, origin, destination);
+    }
+
+    public List<RouteStatsDTO> getDailyStats(LocalDate from, LocalDate to, String origin, String destination) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        validateRange(start, end);
+        return routeStatsRepository.findDailyStats(start, end, origin, destination);
+    }
+
+    private void validateRange(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_DAYS + " days");
+        }
+    }
+}
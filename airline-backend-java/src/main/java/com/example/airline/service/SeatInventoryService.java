@@ -0,0 +1,197 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.SeatAvailabilityDTO;
+import com.example.airline.dto.SeatCountRow;
+import com.example.airline.exception.SeatsUnavailableException;
+import com.example.airline.repository.TicketFlightRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory seat availability per flight. Flights departing inside the window
+ * are loaded with one grouped query on startup; others are loaded on first
+ * access. Bookings and cancellations adjust the counters in place, and a
+ * periodic pass re-reads Postgres to correct any drift.
+ */
+@Slf4j
+@Service
+public class SeatInventoryService {
+    private final TicketFlightRepository ticketFlightRepository;
+    private final Duration window;
+    private final Map<Integer, FlightSeatCounter> inventory = new ConcurrentHashMap<>();
+
+    public SeatInventoryService(TicketFlightRepository ticketFlightRepository,
+                                @Value("${seat-inventory.window:P1D}") Duration window) {
+        this.ticketFlightRepository = ticketFlightRepository;
+        this.window = window;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            Map<Integer, FlightSeatCounter> counters = loadCounters(ticketFlightRepository
+                .countSeatsSoldDepartingFrom(windowStart()));
+            counters.forEach(inventory::putIfAbsent);
+            log.info("Loaded seat inventory for {} flights", counters.size());
+        } catch (Exception e) {
+            log.error("Error loading seat inventory: {}", e.getMessage(), e);
+        }
+    }
+
+    public Optional<SeatAvailabilityDTO> getAvailability(Integer flightId) {
+        return counter(flightId).map(counter -> new SeatAvailabilityDTO(
+            flightId, counter.getSeatsTotal(), counter.getSeatsAvailable(), counter.getSeatsSold()));
+    }
+
+    /**
+     * Takes a seat for the current transaction. The seat is handed back if the
+     * transaction rolls back.
+     */
+    public void reserve(Integer flightId, String fareConditions) {
+        FlightSeatCounter counter = counter(flightId)
+            .orElseThrow(() -> new IllegalArgumentException("Flight not found"));
+        while (!counter.tryReserve(fareConditions)) {
+            if (!counter.isRetired()) {
+                throw new SeatsUnavailableException(flightId);
+            }
+            // Evicted by reconciliation after the lookup; the next one reloads it
+            counter = counter(flightId)
+                .orElseThrow(() -> new IllegalArgumentException("Flight not found"));
+        }
+        FlightSeatCounter reserved = counter;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reserved.confirm();
+                } else {
+                    reserved.rollback(fareConditions);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a seat once the current transaction commits. A flight that isn't
+     * loaded yet picks the cancellation up from the database when it is.
+     */
+    public void releaseAfterCommit(Integer flightId, String fareConditions) {
+        FlightSeatCounter counter = inventory.get(flightId);
+        if (counter == null) {
+            return;
+        }
+        // Pending until completion, so reconciliation can't apply a count that already includes it
+        counter.beginRelease();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                counter.completeRelease(fareConditions, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${seat-inventory.reconcile-interval:PT5M}",
+               initialDelayString = "${seat-inventory.reconcile-interval:PT5M}")
+    public void reconcile() {
+        // Only counters with nothing in flight can be compared against the database
+        Map<Integer, Observed> observed = new HashMap<>();
+        inventory.forEach((flightId, counter) -> {
+            Long stamp = counter.stamp();
+            if (stamp != null) {
+                observed.put(flightId, new Observed(counter, stamp));
+            }
+        });
+
+        Map<Integer, FlightSeatCounter> actual = loadCounters(ticketFlightRepository
+            .countSeatsSoldDepartingFrom(windowStart()));
+
+        int corrected = 0;
+        int evicted = 0;
+        for (Map.Entry<Integer, Observed> entry : observed.entrySet()) {
+            Integer flightId = entry.getKey();
+            FlightSeatCounter counter = entry.getValue().counter;
+            long stamp = entry.getValue().stamp;
+            FlightSeatCounter fresh = actual.get(flightId);
+            if (fresh == null || fresh.getSeatsTotal() != counter.getSeatsTotal()) {
+                // Departed, deleted or re-equipped; reloaded on next access. Retired
+                // first, so a reservation racing the removal retries on a fresh counter
+                if (counter.retire(stamp)) {
+                    inventory.remove(flightId, counter);
+                    evicted++;
+                }
+            } else if (fresh.getSeatsAvailable() != FlightSeatCounter.availableOf(stamp)
+                    && counter.resync(stamp, fresh)) {
+                corrected++;
+            }
+        }
+        actual.forEach(inventory::putIfAbsent);
+
+        if (corrected > 0) {
+            log.warn("Seat inventory reconciliation corrected {} flights", corrected);
+        }
+        log.debug("Seat inventory reconciled: {} flights tracked, {} evicted", inventory.size(), evicted);
+    }
+
+    private Optional<FlightSeatCounter> counter(Integer flightId) {
+        FlightSeatCounter counter = inventory.get(flightId);
+        if (counter != null && !counter.isRetired()) {
+            return Optional.of(counter);
+        }
+        if (counter != null) {
+            // Retired but not yet removed by reconciliation
+            inventory.remove(flightId, counter);
+        }
+        // Queried outside the map, since computeIfAbsent would hold its bin lock for the round trip
+        FlightSeatCounter loaded = loadCounters(ticketFlightRepository.countSeatsSold(flightId)).get(flightId);
+        if (loaded == null) {
+            return Optional.empty();
+        }
+        // A concurrent first access may have won; its counter may already hold reservations
+        FlightSeatCounter existing = inventory.putIfAbsent(flightId, loaded);
+        return Optional.of(existing != null ? existing : loaded);
+    }
+
+    private LocalDateTime windowStart() {
+        return LocalDateTime.now().minus(window);
+    }
+
+    private static Map<Integer, FlightSeatCounter> loadCounters(List<SeatCountRow> rows) {
+        Map<Integer, Integer> seatsTotal = new HashMap<>();
+        Map<Integer, Map<String, Long>> seatsSold = new HashMap<>();
+        for (SeatCountRow row : rows) {
+            seatsTotal.put(row.getFlightId(), row.getSeatsTotal() == null ? 0 : row.getSeatsTotal());
+            Map<String, Long> sold = seatsSold.computeIfAbsent(row.getFlightId(), id -> new HashMap<>());
+            if (row.getFareConditions() != null) {
+                sold.put(row.getFareConditions(), row.getSold());
+            }
+        }
+        Map<Integer, FlightSeatCounter> counters = new HashMap<>();
+        seatsTotal.forEach((flightId, total) ->
+            counters.put(flightId, new FlightSeatCounter(total, seatsSold.get(flightId))));
+        return counters;
+    }
+
+    private static final class Observed {
+        final FlightSeatCounter counter;
+        final long stamp;
+
+        Observed(FlightSeatCounter counter, long stamp) {
+            this.counter = counter;
+            this.stamp = stamp;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.TicketFlightDTO;
+import com.example.airline.dto.TicketFlightRequest;
+import com.example.airline.model.TicketFlight;
+import com.example.airline.model.TicketFlightId;
+import com.example.airline.repository.FlightRepository;
+import com.example.airline.repository.TicketFlightRepository;
+import com.example.airline.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class TicketService {
+    private static final Set<String> FARE_CONDITIONS = Set.of("Economy", "Business", "First");
+
+    private final TicketRepository ticketRepository;
+    private final TicketFlightRepository ticketFlightRepository;
+    private final FlightRepository flightRepository;
+    private final SeatInventoryService seatInventoryService;
+
+    /**
+     * Books a seat on a flight for an existing ticket. The seat is taken from
+     * the in-memory inventory before the insert and returned if it fails.
+     */
+    @Transactional
+    public TicketFlightDTO addFlight(String ticketNo, TicketFlightRequest request) {
+        if (request.getFlightId() == null) {
+            throw new IllegalArgumentException("Flight ID is required");
+        }
+        if (!FARE_CONDITIONS.contains(request.getFareConditions())) {
+            throw new IllegalArgumentException("Fare conditions must be one of " + FARE_CONDITIONS);
+        }
+        if (request.getAmount() == null || request.getAmount() < 0) {
+            throw new IllegalArgumentException("Amount must be zero or more");
+        }
+        if (!ticketRepository.existsById(ticketNo)) {
+            throw new IllegalArgumentException("Ticket not found");
+        }
+        TicketFlightId id = new TicketFlightId();
+        id.setTicketNo(ticketNo);
+        id.setFlightId(request.getFlightId());
+        if (ticketFlightRepository.existsById(id)) {
+            throw new IllegalArgumentException("Ticket is already booked on this flight");
+        }
+
+        seatInventoryService.reserve(request.getFlightId(), request.getFareConditions());
+
+        TicketFlight ticketFlight = new TicketFlight();
+        ticketFlight.setId(id);
+        ticketFlight.setTicket(ticketRepository.getReferenceById(ticketNo));
+        ticketFlight.setFlight(flightRepository.getReferenceById(request.getFlightId()));
+        ticketFlight.setFareConditions(request.getFareConditions());
+        ticketFlight.setAmount(request.getAmount());
+        ticketFlightRepository.saveAndFlush(ticketFlight);
+
+        return new TicketFlightDTO(request.getFareConditions(), request.getAmount(),
+            flightRepository.findFlightDTOById(request.getFlightId()).orElse(null));
+    }
+
+    @Transactional
+    public void removeFlight(String ticketNo, Integer flightId) {
+        TicketFlightId id = new TicketFlightId();
+        id.setTicketNo(ticketNo);
+        id.setFlightId(flightId);
+        TicketFlight ticketFlight = ticketFlightRepository.findById(id)
+            .orElseThrow(() -> new IllegalArgumentException("Ticket is not booked on this flight"));
+        ticketFlightRepository.delete(ticketFlight);
+        seatInventoryService.releaseAfterCommit(flightId, ticketFlight.getFareConditions());
+    }
+}
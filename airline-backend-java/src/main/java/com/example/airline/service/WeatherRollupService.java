@@ -0,0 +1,289 @@
+package com.example.airline.service;
+
+import com.example.airline.model.Airport;
+import com.example.airline.model.Weather;
+import com.example.airline.model.WeatherRollup;
+import com.example.airline.model.WeatherRollup.Resolution;
+import com.example.airline.repository.AirportRepository;
+import com.example.airline.repository.WeatherRepository;
+import com.example.airline.repository.WeatherRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+
+/**
+ * Downsamples raw weather readings into hourly and daily min/max/avg rollups,
+ * and decides when a range query is long enough to be served from them.
+ * <p>
+ * Every hour the last few closed hours are recomputed for each airport, so late
+ * readings are picked up, and the daily rollups of the days they fall in are
+ * rebuilt from the hourly ones. Writes overwrite, so reruns are harmless.
+ * <p>
+ * Readings saved through {@link WeatherService} also queue their hour, however
+ * old, and queued hours are rolled up within a minute. Batch backfills and
+ * locations that are not airports are therefore covered too. Data written
+ * before rollups were enabled, or by other means, is rolled up with
+ * {@link #backfill}.
+ */
+@Slf4j
+@Service
+public class WeatherRollupService {
+    private final WeatherRepository weatherRepository;
+    private final WeatherRollupRepository rollupRepository;
+    private final AirportRepository airportRepository;
+    private final boolean enabled;
+    private final Duration hourlyFrom;
+    private final Duration dailyFrom;
+    private final Duration recompute;
+    // Hours with readings written through this instance and not yet rolled up
+    private final Map<String, NavigableSet<Long>> writtenHours = new ConcurrentHashMap<>();
+
+    public WeatherRollupService(WeatherRepository weatherRepository,
+                                WeatherRollupRepository rollupRepository,
+                                AirportRepository airportRepository,
+                                @Value("${weather.rollup.enabled:true}") boolean enabled,
+                                @Value("${weather.rollup.hourly-from:P2D}") Duration hourlyFrom,
+                                @Value("${weather.rollup.daily-from:P31D}") Duration dailyFrom,
+                                @Value("${weather.rollup.recompute:PT3H}") Duration recompute) {
+        this.weatherRepository = weatherRepository;
+        this.rollupRepository = rollupRepository;
+        this.airportRepository = airportRepository;
+        this.enabled = enabled;
+        this.hourlyFrom = hourlyFrom;
+        this.dailyFrom = dailyFrom;
+        this.recompute = recompute;
+    }
+
+    /**
+     * Rollup resolution a range of this length is served at, or empty for raw readings.
+     */
+    public Optional<Resolution> resolutionFor(long startTime, long endTime) {
+        long span = endTime - startTime;
+        if (!enabled || span < hourlyFrom.getSeconds()) {
+            return Optional.empty();
+        }
+        return Optional.of(span < dailyFrom.getSeconds() ? Resolution.HOUR : Resolution.DAY);
+    }
+
+    /**
+     * Rollups overlapping {@code [startTime, endTime]}, including the period
+     * {@code startTime} falls in.
+     */
+    public List<WeatherRollup> getRollups(String locationId, Resolution resolution, long startTime, long endTime) {
+        return rollupRepository.getRollups(locationId, resolution, resolution.periodStart(startTime), endTime);
+    }
+
+    /**
+     * Queues the hour of each reading for {@link #rollUpWritten}.
+     */
+    public void markWritten(Collection<Weather> readings) {
+        if (!enabled) {
+            return;
+        }
+        for (Weather weather : readings) {
+            if (weather.getLocationId() != null && weather.getTimestamp() != null) {
+                writtenHours.computeIfAbsent(weather.getLocationId(), id -> new ConcurrentSkipListSet<>())
+                        .add(Resolution.HOUR.periodStart(weather.getTimestamp()));
+            }
+        }
+    }
+
+    /**
+     * Rolls up the queued hours, one run of consecutive hours at a time.
+     */
+    @Scheduled(fixedDelayString = "${weather.rollup.written-interval:PT1M}")
+    public void rollUpWritten() {
+        long hourSeconds = Resolution.HOUR.getSeconds();
+        writtenHours.forEach((locationId, queued) -> {
+            // Drained element by element, so hours queued meanwhile stay for the next run
+            List<Long> hours = new ArrayList<>();
+            Long hour;
+            while ((hour = queued.pollFirst()) != null) {
+                hours.add(hour);
+            }
+            int start = 0;
+            for (int i = 1; i <= hours.size(); i++) {
+                if (i == hours.size() || hours.get(i) != hours.get(i - 1) + hourSeconds) {
+                    long from = hours.get(start);
+                    long to = hours.get(i - 1) + hourSeconds;
+                    try {
+                        backfill(locationId, from, to);
+                    } catch (Exception e) {
+                        log.error("Error rolling up written weather for {}: {}", locationId, e.getMessage(), e);
+                        queued.addAll(hours.subList(start, i));
+                    }
+                    start = i;
+                }
+            }
+        });
+    }
+
+    /**
+     * Recomputes the rollups of {@code [from, to)} for one location, a UTC day
+     * at a time, so ranges of any length can be rolled up.
+     */
+    public void backfill(String locationId, long from, long to) {
+        if (from >= to) {
+            throw new IllegalArgumentException("Backfill start must be before its end");
+        }
+        long daySeconds = Resolution.DAY.getSeconds();
+        for (long chunk = Resolution.HOUR.periodStart(from); chunk < to; chunk = Resolution.DAY.periodStart(chunk) + daySeconds) {
+            rollUp(locationId, chunk, Math.min(Resolution.DAY.periodStart(chunk) + daySeconds, to));
+        }
+    }
+
+    @Scheduled(cron = "${weather.rollup.cron:0 5 * * * *}", zone = "UTC")
+    public void rollUpRecent() {
+        if (!enabled) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        // The current hour is still open; it is picked up by a later run
+        long to = Resolution.HOUR.periodStart(now);
+        long from = Resolution.HOUR.periodStart(now - recompute.getSeconds());
+        int locations = 0;
+        for (Airport airport : airportRepository.findAll()) {
+            try {
+                rollUp(airport.getAirportCode(), from, to);
+                locations++;
+            } catch (Exception e) {
+                log.error("Error rolling up weather for {}: {}", airport.getAirportCode(), e.getMessage(), e);
+            }
+        }
+        log.debug("Rolled up weather for {} locations", locations);
+    }
+
+    /**
+     * Recomputes the hourly rollups of {@code [from, to)} for one location,
+     * then the daily rollups of every day that range touches.
+     */
+    public void rollUp(String locationId, long from, long to) {
+        Map<Long, List<Weather>> byHour = weatherRepository.getWeatherForLocation(locationId, from, to - 1)
+                .stream()
+                .collect(Collectors.groupingBy(weather -> Resolution.HOUR.periodStart(weather.getTimestamp()),
+                        TreeMap::new, Collectors.toList()));
+        byHour.forEach((hour, readings) -> rollupRepository.saveRollup(
+                aggregate(locationId, Resolution.HOUR, hour, readings)));
+
+        long daySeconds = Resolution.DAY.getSeconds();
+        for (long day = Resolution.DAY.periodStart(from); day < to; day += daySeconds) {
+            List<WeatherRollup> hours = rollupRepository.getRollups(
+                    locationId, Resolution.HOUR, day, day + daySeconds - 1);
+            if (!hours.isEmpty()) {
+                rollupRepository.saveRollup(merge(locationId, Resolution.DAY, day, hours));
+            }
+        }
+    }
+
+    static WeatherRollup aggregate(String locationId, Resolution resolution, long periodStart, List<Weather> readings) {
+        Stats temperature = new Stats();
+        Stats humidity = new Stats();
+        Stats windSpeed = new Stats();
+        Map<String, Long> conditions = new HashMap<>();
+        String coordinates = null;
+        for (Weather weather : readings) {
+            temperature.add(weather.getTemperature(), weather.getTemperature(), weather.getTemperature(), 1);
+            humidity.add(weather.getHumidity(), weather.getHumidity(), weather.getHumidity(), 1);
+            windSpeed.add(weather.getWindSpeed(), weather.getWindSpeed(), weather.getWindSpeed(), 1);
+            if (weather.getConditions() != null) {
+                conditions.merge(weather.getConditions(), 1L, Long::sum);
+            }
+            if (weather.getCoordinates() != null) {
+                coordinates = weather.getCoordinates();
+            }
+        }
+        return build(locationId, resolution, periodStart, readings.size(),
+                temperature, humidity, windSpeed, conditions, coordinates);
+    }
+
+    /**
+     * Combines finer rollups into a coarser one; averages are weighted by each
+     * part's reading count.
+     */
+    static WeatherRollup merge(String locationId, Resolution resolution, long periodStart, List<WeatherRollup> parts) {
+        Stats temperature = new Stats();
+        Stats humidity = new Stats();
+        Stats windSpeed = new Stats();
+        Map<String, Long> conditions = new HashMap<>();
+        String coordinates = null;
+        long count = 0;
+        for (WeatherRollup part : parts) {
+            long weight = part.getCount();
+            temperature.add(part.getTemperatureMin(), part.getTemperatureMax(), part.getTemperatureAvg(), weight);
+            humidity.add(part.getHumidityMin(), part.getHumidityMax(), part.getHumidityAvg(), weight);
+            windSpeed.add(part.getWindSpeedMin(), part.getWindSpeedMax(), part.getWindSpeedAvg(), weight);
+            if (part.getConditions() != null) {
+                conditions.merge(part.getConditions(), weight, Long::sum);
+            }
+            if (part.getCoordinates() != null) {
+                coordinates = part.getCoordinates();
+            }
+            count += weight;
+        }
+        return build(locationId, resolution, periodStart, count,
+                temperature, humidity, windSpeed, conditions, coordinates);
+    }
+
+    private static WeatherRollup build(String locationId, Resolution resolution, long periodStart, long count,
+                                       Stats temperature, Stats humidity, Stats windSpeed,
+                                       Map<String, Long> conditions, String coordinates) {
+        WeatherRollup rollup = new WeatherRollup();
+        rollup.setSeries(WeatherRollup.seriesOf(locationId, resolution));
+        rollup.setPeriodStart(periodStart);
+        rollup.setLocationId(locationId);
+        rollup.setResolution(resolution.name());
+        rollup.setCount(count);
+        rollup.setTemperatureMin(temperature.min);
+        rollup.setTemperatureMax(temperature.max);
+        rollup.setTemperatureAvg(temperature.avg());
+        rollup.setHumidityMin(humidity.min);
+        rollup.setHumidityMax(humidity.max);
+        rollup.setHumidityAvg(humidity.avg());
+        rollup.setWindSpeedMin(windSpeed.min);
+        rollup.setWindSpeedMax(windSpeed.max);
+        rollup.setWindSpeedAvg(windSpeed.avg());
+        rollup.setConditions(conditions.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(null));
+        rollup.setCoordinates(coordinates);
+        return rollup;
+    }
+
+    // Min, max and weighted mean of one attribute; missing values are skipped
+    private static final class Stats {
+        Double min;
+        Double max;
+        double sum;
+        long weight;
+
+        void add(Double min, Double max, Double avg, long weight) {
+            if (avg == null) {
+                return;
+            }
+            this.min = this.min == null ? min : Math.min(this.min, min);
+            this.max = this.max == null ? max : Math.max(this.max, max);
+            this.sum += avg * weight;
+            this.weight += weight;
+        }
+
+        Double avg() {
+            return weight == 0 ? null : sum / weight;
+        }
+    }
+}
@@ -1,32 +1,263 @@
 package com.example.airline.service;
 
+import com.example.airline.dto.WeatherBatchResult;
 import com.example.airline.model.Weather;
+import com.example.airline.model.WeatherRollup;
+import com.example.airline.model.WeatherRollup.Resolution;
+import com.example.airline.repository.WeatherAsyncRepository;
 import com.example.airline.repository.WeatherRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 @Service
 public class WeatherService {
+    // One BatchGetItem call covers up to 100 keys
+    public static final int MAX_LOCATIONS = 100;
+    // Readings per /batch request; 40 BatchWriteItem calls at most
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final WeatherRepository weatherRepository;
+    // Present only when aws.dynamodb.async.enabled=true and readings use the
+    // flat layout; the async repository does not know about day buckets
+    private final WeatherAsyncRepository weatherAsyncRepository;
+    private final ExecutorService weatherReadExecutor;
+    private final LatestWeatherCache latestWeatherCache;
+    private final WeatherRollupService weatherRollupService;
+    // Zero keeps readings forever
+    private final Duration retention;
 
-    public WeatherService(WeatherRepository weatherRepository) {
+    public WeatherService(WeatherRepository weatherRepository,
+                          ObjectProvider<WeatherAsyncRepository> weatherAsyncRepository,
+                          @Qualifier("weatherReadExecutor") ExecutorService weatherReadExecutor,
+                          LatestWeatherCache latestWeatherCache,
+                          WeatherRollupService weatherRollupService,
+                          @Value("${weather.storage.retention:P90D}") Duration retention) {
         this.weatherRepository = weatherRepository;
+        this.weatherAsyncRepository = weatherRepository.isBucketed() ? null : weatherAsyncRepository.getIfAvailable();
+        this.weatherReadExecutor = weatherReadExecutor;
+        this.latestWeatherCache = latestWeatherCache;
+        this.weatherRollupService = weatherRollupService;
+        this.retention = retention;
     }
 
     public Weather getWeather(String locationId, Long timestamp) {
         return weatherRepository.getWeather(locationId, timestamp);
     }
 
-    public List<Weather> getRecentWeather(String locationId) {
-        return weatherRepository.getRecentWeather(locationId);
+    /**
+     * @param fields attributes to return besides the keys; empty or null for all
+     */
+    public List<Weather> getRecentWeather(String locationId, Collection<String> fields) {
+        return weatherRepository.getRecentWeather(locationId, WeatherRepository.projectionOf(fields));
+    }
+
+    /**
+     * Readings in {@code [startTime, endTime]}. Ranges long enough to have a
+     * {@link #resolutionFor rollup resolution} return one averaged entry per
+     * hour or day instead, timestamped at the start of the period.
+     *
+     * @param fields attributes to return besides the keys; empty or null for all
+     */
+    public List<Weather> getWeatherForLocation(String locationId, long startTime, long endTime,
+                                               Collection<String> fields) {
+        List<String> projection = WeatherRepository.projectionOf(fields);
+        Optional<Resolution> resolution = resolutionFor(startTime, endTime);
+        if (resolution.isPresent()) {
+            return getRollups(locationId, resolution.get(), startTime, endTime).stream()
+                    .map(rollup -> project(rollup.toWeather(), projection))
+                    .collect(Collectors.toList());
+        }
+        return weatherRepository.getWeatherForLocation(locationId, startTime, endTime, projection);
+    }
+
+    // Gives rollup-backed responses the same shape as projected raw reads
+    private static Weather project(Weather weather, List<String> projection) {
+        if (projection != null) {
+            weather.setTemperature(projection.contains("temperature") ? weather.getTemperature() : null);
+            weather.setHumidity(projection.contains("humidity") ? weather.getHumidity() : null);
+            weather.setConditions(projection.contains("conditions") ? weather.getConditions() : null);
+            weather.setWindSpeed(projection.contains("windSpeed") ? weather.getWindSpeed() : null);
+            weather.setCoordinates(projection.contains("coordinates") ? weather.getCoordinates() : null);
+        }
+        return weather;
+    }
+
+    public Optional<Resolution> resolutionFor(long startTime, long endTime) {
+        return weatherRollupService.resolutionFor(startTime, endTime);
+    }
+
+    public List<WeatherRollup> getRollups(String locationId, Resolution resolution, long startTime, long endTime) {
+        return weatherRollupService.getRollups(locationId, resolution, startTime, endTime);
     }
 
-    public List<Weather> getWeatherForLocation(String locationId, long startTime, long endTime) {
-        return weatherRepository.getWeatherForLocation(locationId, startTime, endTime);
+    /**
+     * Rolls up {@code [startTime, endTime)} for one location from its raw
+     * readings, e.g. for data stored before rollups were enabled.
+     */
+    public void backfillRollups(String locationId, long startTime, long endTime) {
+        weatherRollupService.backfill(locationId, startTime, endTime);
     }
 
     public void saveWeather(Weather weather) {
+        setExpiry(weather);
         weatherRepository.saveWeather(weather);
+        latestWeatherCache.update(weather);
+        weatherRollupService.markWritten(List.of(weather));
+    }
+
+    /*
+     * Future-returning variants used by WeatherController. In async mode they
+     * never block the calling thread; otherwise they run the blocking call and
+     * return an already-completed future.
+     */
+
+    public CompletableFuture<Weather> getWeatherAsync(String locationId, Long timestamp) {
+        if (weatherAsyncRepository != null) {
+            return weatherAsyncRepository.getWeather(locationId, timestamp);
+        }
+        return CompletableFuture.completedFuture(getWeather(locationId, timestamp));
+    }
+
+    public CompletableFuture<List<Weather>> getRecentWeatherAsync(String locationId, Collection<String> fields) {
+        if (weatherAsyncRepository != null) {
+            return weatherAsyncRepository.getRecentWeather(locationId, WeatherRepository.projectionOf(fields));
+        }
+        return CompletableFuture.completedFuture(getRecentWeather(locationId, fields));
+    }
+
+    public CompletableFuture<List<Weather>> getWeatherForLocationAsync(String locationId, long startTime, long endTime,
+                                                                       Collection<String> fields) {
+        // Rollup reads are a few dozen items at most, so they stay synchronous
+        if (weatherAsyncRepository != null && resolutionFor(startTime, endTime).isEmpty()) {
+            return weatherAsyncRepository.getWeatherForLocation(locationId, startTime, endTime,
+                    WeatherRepository.projectionOf(fields));
+        }
+        return CompletableFuture.completedFuture(getWeatherForLocation(locationId, startTime, endTime, fields));
+    }
+
+    /**
+     * Current weather for many locations at once. A plain location id resolves
+     * to its newest reading; {@code LOC:epochSeconds} fetches that exact reading.
+     * Latest-reading queries run concurrently, and all exact keys share one
+     * BatchGetItem call, so total latency stays close to a single lookup.
+     *
+     * @return readings keyed by location id in request order; null when none exists
+     */
+    public CompletableFuture<Map<String, Weather>> getCurrentWeather(List<String> locations) {
+        if (locations.isEmpty() || locations.size() > MAX_LOCATIONS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_LOCATIONS + " locations are required");
+        }
+
+        List<String> order = new ArrayList<>();
+        Map<String, Long> exactKeys = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Weather>> latestLookups = new LinkedHashMap<>();
+        for (String location : locations) {
+            int separator = location.indexOf(':');
+            String locationId = separator < 0 ? location : location.substring(0, separator);
+            order.add(locationId);
+            if (separator < 0) {
+                latestLookups.computeIfAbsent(locationId, this::getLatestWeatherAsync);
+            } else {
+                exactKeys.put(locationId, parseTimestamp(location.substring(separator + 1)));
+            }
+        }
+
+        CompletableFuture<Map<String, Weather>> exactLookup = exactKeys.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : CompletableFuture.supplyAsync(() -> weatherRepository.getWeatherBatch(exactKeys), weatherReadExecutor);
+
+        List<CompletableFuture<?>> all = new ArrayList<>(latestLookups.values());
+        all.add(exactLookup);
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    Map<String, Weather> exact = exactLookup.join();
+                    Map<String, Weather> result = new LinkedHashMap<>();
+                    for (String locationId : order) {
+                        CompletableFuture<Weather> latest = latestLookups.get(locationId);
+                        result.put(locationId, latest != null ? latest.join() : exact.get(locationId));
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Newest reading for a location, served from {@link LatestWeatherCache}.
+     */
+    public CompletableFuture<Weather> getLatestWeatherAsync(String locationId) {
+        return latestWeatherCache.get(locationId);
+    }
+
+    private static long parseTimestamp(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid timestamp: " + value);
+        }
+    }
+
+    public CompletableFuture<Void> saveWeatherAsync(Weather weather) {
+        if (weatherAsyncRepository != null) {
+            setExpiry(weather);
+            return weatherAsyncRepository.saveWeather(weather)
+                    .thenRun(() -> {
+                        latestWeatherCache.update(weather);
+                        weatherRollupService.markWritten(List.of(weather));
+                    });
+        }
+        saveWeather(weather);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public WeatherBatchResult saveWeatherBatch(List<Weather> observations) {
+        if (observations.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not exceed " + MAX_BATCH_SIZE + " observations");
+        }
+        for (Weather weather : observations) {
+            if (weather.getLocationId() == null) {
+                throw new IllegalArgumentException("locationId is required for every observation");
+            }
+        }
+        observations.forEach(this::setExpiry);
+        List<Weather> unprocessed = weatherRepository.saveWeatherBatch(observations);
+        // The SDK hands back copies of unprocessed items, so match them by key
+        Set<String> failed = unprocessed.stream()
+                .map(WeatherRepository::itemKey)
+                .collect(Collectors.toSet());
+        Set<String> written = new HashSet<>();
+        List<Weather> saved = new ArrayList<>(observations.size());
+        for (Weather weather : observations) {
+            String key = WeatherRepository.itemKey(weather);
+            if (!failed.contains(key)) {
+                latestWeatherCache.update(weather);
+                saved.add(weather);
+                written.add(key);
+            }
+        }
+        // Backfilled hours are older than the scheduled rollup window
+        weatherRollupService.markWritten(saved);
+        // Repeated keys are stored once, so they count once
+        return new WeatherBatchResult(observations.size(), written.size(), unprocessed.size());
+    }
+
+    // Retention runs from the reading's own time, so backfilled readings expire on schedule
+    private void setExpiry(Weather weather) {
+        if (!retention.isZero() && weather.getTimestamp() != null) {
+            weather.setExpiresAt(weather.getTimestamp() + retention.getSeconds());
+        }
     }
 }
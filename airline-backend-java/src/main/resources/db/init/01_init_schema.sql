@@ -6,7 +6,8 @@ CREATE TABLE IF NOT EXISTS aircrafts (
     aircraft_code CHAR(3) PRIMARY KEY,
     model VARCHAR(50) NOT NULL,
     range INTEGER NOT NULL,
-    seats_total INTEGER
+    seats_total INTEGER,
+    version INTEGER NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS airports (
@@ -27,7 +28,8 @@ CREATE TABLE IF NOT EXISTS flights (
     status VARCHAR(20) NOT NULL,
     aircraft_code CHAR(3) REFERENCES aircrafts(aircraft_code),
     actual_departure TIMESTAMP,
-    actual_arrival TIMESTAMP
+    actual_arrival TIMESTAMP,
+    version INTEGER NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
@@ -0,0 +1,65 @@
+package com.example.airline.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DynamoDBMetricPublisherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DynamoDBMetricPublisher publisher;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new DynamoDBMetricPublisher(meterRegistry, "sync");
+    }
+
+    @Test
+    public void publish_ShouldRecordCallDurationRetriesAndConnectionWait() {
+        MetricCollector apiCall = MetricCollector.create("ApiCall");
+        apiCall.reportMetric(CoreMetric.OPERATION_NAME, "Query");
+        apiCall.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, true);
+        apiCall.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(40));
+        apiCall.reportMetric(CoreMetric.RETRY_COUNT, 1);
+        for (long waitMillis : new long[]{5, 15}) {
+            MetricCollector attempt = apiCall.createChild("ApiCallAttempt");
+            attempt.createChild("HttpClient").reportMetric(
+                HttpMetric.CONCURRENCY_ACQUIRE_DURATION, Duration.ofMillis(waitMillis));
+        }
+
+        publisher.publish(apiCall.collect());
+
+        Timer call = meterRegistry.get("dynamodb.api.call")
+            .tags("client", "sync", "operation", "Query", "successful", "true")
+            .timer();
+        assertThat(call.count()).isEqualTo(1);
+        assertThat(call.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+        assertThat(meterRegistry.get("dynamodb.api.call.retries").tag("operation", "Query").counter().count())
+            .isEqualTo(1);
+        Timer acquire = meterRegistry.get("dynamodb.http.concurrency.acquire").tag("operation", "Query").timer();
+        assertThat(acquire.count()).isEqualTo(2);
+        assertThat(acquire.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+    }
+
+    @Test
+    public void publish_WithoutRetries_ShouldNotRegisterRetryCounter() {
+        MetricCollector apiCall = MetricCollector.create("ApiCall");
+        apiCall.reportMetric(CoreMetric.OPERATION_NAME, "GetItem");
+        apiCall.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(3));
+
+        publisher.publish(apiCall.collect());
+
+        assertThat(meterRegistry.find("dynamodb.api.call").tag("successful", "false").timer()).isNotNull();
+        assertThat(meterRegistry.find("dynamodb.api.call.retries").counter()).isNull();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.airline.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean replicaUsable = new AtomicBoolean(true);
+    private DataSource primary;
+    private DataSource replica;
+    private DataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+            primary, replica, replicaUsable::get));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    public void readOnlyTransactions_ShouldUseReplica() {
+        assertThat(readOnlyTransaction.<String>execute(status -> whichDatabase())).isEqualTo("replica");
+    }
+
+    @Test
+    public void readWriteTransactionsAndNonTransactionalCalls_ShouldUsePrimary() {
+        assertThat(readWriteTransaction.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+        assertThat(whichDatabase()).isEqualTo("primary");
+    }
+
+    @Test
+    public void readOnlyTransactions_ShouldUsePrimary_WhenReplicaIsLagging() {
+        replicaUsable.set(false);
+
+        assertThat(readOnlyTransaction.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+    }
+
+    @Test
+    public void readOnlyTransactions_ShouldUsePrimary_WhenPrimaryIsRequired() {
+        boolean previous = ReplicaRoutingDataSource.requirePrimary();
+        try {
+            assertThat(readOnlyTransaction.<String>execute(status -> whichDatabase())).isEqualTo("primary");
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+
+        assertThat(readOnlyTransaction.<String>execute(status -> whichDatabase())).isEqualTo("replica");
+    }
+
+    @Test
+    public void readWriteTransactionAfterReadOnlyTransaction_ShouldWriteToPrimary() {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        // The shared proxy services inject, as used by one request calling a reader then a writer
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+            transactionManager.getEntityManagerFactory());
+        try {
+            assertThat(readOnly.<Object>execute(status -> entityManager
+                .createNativeQuery("SELECT name FROM whoami").getSingleResult())).isEqualTo("replica");
+            readWrite.executeWithoutResult(status -> entityManager
+                .createNativeQuery("UPDATE whoami SET name = name || '-written'").executeUpdate());
+        } finally {
+            transactionManager.getEntityManagerFactory().close();
+        }
+
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT name FROM whoami", String.class))
+            .isEqualTo("primary-written");
+        assertThat(new JdbcTemplate(replica).queryForObject("SELECT name FROM whoami", String.class))
+            .isEqualTo("replica");
+    }
+
+    private EntityManagerFactory entityManagerFactory() {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(routing);
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan(ReplicaRoutingDataSourceTest.class.getPackageName());
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+
+    private String whichDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM whoami");
+        jdbcTemplate.update("INSERT INTO whoami (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.airline.controller;
 
+import com.example.airline.config.BinaryFormatConfig;
 import com.example.airline.dto.AircraftDTO;
 import com.example.airline.model.Aircraft;
 import com.example.airline.service.AircraftService;
@@ -7,18 +8,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AircraftController.class)
+@Import(BinaryFormatConfig.class)
 public class AircraftControllerTest {
 
     @Autowired
@@ -57,4 +61,59 @@ public class AircraftControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.aircraftCode").value("773"));
     }
+
+    @Test
+    public void getAircraftByCode_WhenETagMatches_ShouldReturnNotModified() throws Exception {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode("773");
+        aircraft.setModel("Boeing 777-300");
+        aircraft.setRange(11100);
+        aircraft.setVersion(3);
+
+        when(aircraftService.getAircraftByCode("773")).thenReturn(Optional.of(aircraft));
+
+        mockMvc.perform(get("/api/v1/aircraft/773"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3\""))
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(header().string("Vary", containsString("Accept")));
+
+        mockMvc.perform(get("/api/v1/aircraft/773").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void getAircraftByCode_WithSmileAccept_ShouldShareWeakETag() throws Exception {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode("773");
+        aircraft.setVersion(3);
+
+        when(aircraftService.getAircraftByCode("773")).thenReturn(Optional.of(aircraft));
+
+        mockMvc.perform(get("/api/v1/aircraft/773").accept(BinaryFormatConfig.SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatConfig.SMILE))
+                .andExpect(header().string("ETag", "W/\"3\""));
+
+        mockMvc.perform(get("/api/v1/aircraft/773").accept(BinaryFormatConfig.SMILE).header("If-None-Match", "W/\"3\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void getAllAircraft_WhenListChanges_ShouldChangeETag() throws Exception {
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode("773");
+        aircraft.setVersion(0);
+        String before = AircraftController.listETag(Arrays.asList(aircraft));
+
+        when(aircraftService.getAllAircraft()).thenReturn(Arrays.asList(aircraft));
+        mockMvc.perform(get("/api/v1/aircraft").header("If-None-Match", "\"" + before + "\""))
+                .andExpect(status().isNotModified());
+
+        aircraft.setVersion(1);
+        mockMvc.perform(get("/api/v1/aircraft").header("If-None-Match", "\"" + before + "\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].aircraftCode").value("773"));
+    }
 }
@@ -0,0 +1,122 @@
+package com.example.airline.controller;
+
+import com.example.airline.config.BinaryFormatConfig;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.service.FlightEventStream;
+import com.example.airline.service.FlightService;
+import com.example.airline.service.FlightWeatherService;
+import com.example.airline.service.SeatInventoryService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FlightController.class)
+@Import(BinaryFormatConfig.class)
+public class FlightControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlightService flightService;
+
+    @MockBean
+    private FlightWeatherService flightWeatherService;
+
+    @MockBean
+    private SeatInventoryService seatInventoryService;
+
+    @MockBean
+    private FlightEventStream flightEventStream;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    private FlightDTO flight;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        LocalDateTime departure = LocalDateTime.of(2025, 3, 1, 8, 30);
+        flight = new FlightDTO(4, "AA1004", departure, departure.plusHours(6),
+            "JFK", "LAX", "Scheduled", "773", null, null,
+            "John F Kennedy International Airport", "Los Angeles International Airport", "Boeing 777-300");
+        doAnswer(invocation -> {
+            ((Consumer<FlightDTO>) invocation.getArgument(0)).accept(flight);
+            return null;
+        }).when(flightService).exportFlights(any());
+    }
+
+    @Test
+    public void exportFlights_WithWildcardAccept_ShouldStreamNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/flights/export").accept(MediaType.ALL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"flightNo\":\"AA1004\"")));
+    }
+
+    @Test
+    public void exportFlights_WithoutAccept_ShouldStreamNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/flights/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+    }
+
+    @Test
+    public void exportFlights_WithSmileAccept_ShouldStreamSmile() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/flights/export").accept(BinaryFormatConfig.SMILE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatConfig.SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (MappingIterator<FlightDTO> flights = smileConverter.getObjectMapper()
+                .readerFor(FlightDTO.class).readValues(body)) {
+            assertThat(flights.readAll()).containsExactly(flight);
+        }
+    }
+
+    @Test
+    public void getFlightById_ShouldSendWeakETagThatRevalidatesAcrossFormats() throws Exception {
+        when(flightService.getFlightVersion(4)).thenReturn(Optional.of("2.3"));
+        when(flightService.getFlightById(4)).thenReturn(Optional.of(flight));
+
+        mockMvc.perform(get("/api/v1/flights/4").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"2.3\""));
+
+        mockMvc.perform(get("/api/v1/flights/4").accept(BinaryFormatConfig.SMILE).header("If-None-Match", "W/\"2.3\""))
+                .andExpect(status().isNotModified());
+    }
+}
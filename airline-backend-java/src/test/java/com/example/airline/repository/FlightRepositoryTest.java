@@ -0,0 +1,180 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightQuery;
+import com.example.airline.model.Aircraft;
+import com.example.airline.model.Airport;
+import com.example.airline.model.Flight;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class FlightRepositoryTest {
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void findFlightDTOById_ShouldRunSingleStatement() {
+        Optional<FlightDTO> flight = flightRepository.findFlightDTOById(1);
+
+        assertThat(flight).isPresent();
+        assertFullyPopulated(flight.get());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findFlightDTOs_ShouldRunSingleStatement() {
+        List<FlightDTO> flights = flightRepository.findFlightDTOs(null, null, 100);
+
+        assertThat(flights).hasSize(7);
+        assertThat(flights).allSatisfy(this::assertFullyPopulated);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findFlightDTOs_WithSpecification_ShouldRunSingleStatement() {
+        List<FlightDTO> byDeparture = flightRepository.findFlightDTOs(
+            FlightSpecifications.departsFrom("JFK"), null, 100);
+        List<FlightDTO> byArrival = flightRepository.findFlightDTOs(
+            FlightSpecifications.arrivesAt("SFO"), null, 100);
+        List<FlightDTO> byStatus = flightRepository.findFlightDTOs(
+            FlightSpecifications.hasStatus("Scheduled"), null, 100);
+        LocalDateTime now = LocalDateTime.now();
+        List<FlightDTO> byDateRange = flightRepository.findFlightDTOs(
+            FlightSpecifications.departsBetween(now, now.plusDays(1)), null, 100);
+
+        assertThat(byDeparture).hasSize(2);
+        assertThat(byArrival).hasSize(2);
+        assertThat(byStatus).hasSize(3);
+        assertThat(byDateRange).hasSize(4);
+        assertThat(byDeparture).allSatisfy(this::assertFullyPopulated);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void findFlightDTOs_WithCompositeQuery_ShouldApplyAllFilters() {
+        FlightQuery query = new FlightQuery();
+        query.setOrigin("JFK");
+        query.setDestination("LAX");
+        query.setFrom(LocalDateTime.now());
+        query.setStatus("Scheduled");
+        query.setAircraft("773");
+
+        List<FlightDTO> flights = flightRepository.findFlightDTOs(FlightSpecifications.matching(query), null, 100);
+
+        assertThat(flights).extracting(FlightDTO::getFlightNo).containsExactly("AA1004");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findFlightDTOs_WithCursor_ShouldWalkAllPagesInOrder() {
+        List<Integer> seen = new ArrayList<>();
+        FlightCursor cursor = null;
+        List<FlightDTO> page;
+        do {
+            page = flightRepository.findFlightDTOs(null, cursor, 3);
+            page.forEach(flight -> seen.add(flight.getFlightId()));
+            if (!page.isEmpty()) {
+                cursor = FlightCursor.decode(FlightCursor.after(page.get(page.size() - 1)).encode());
+            }
+        } while (page.size() == 3);
+
+        assertThat(seen).containsExactly(1, 2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    public void streamAllFlightDTOs_ShouldRunSingleStatement() {
+        List<FlightDTO> streamed;
+        try (Stream<FlightDTO> flights = flightRepository.streamAllFlightDTOs()) {
+            streamed = flights.toList();
+        }
+
+        assertThat(streamed).hasSize(7);
+        assertThat(streamed).allSatisfy(this::assertFullyPopulated);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void findDTOVersionById_ShouldChangeWhenFlightIsUpdated() {
+        assertThat(flightRepository.findDTOVersionById(1)).contains("0.0");
+
+        Flight flight = flightRepository.findById(1).orElseThrow();
+        flight.setStatus("Delayed");
+        flightRepository.saveAndFlush(flight);
+
+        assertThat(flightRepository.findDTOVersionById(1)).contains("1.0");
+        assertThat(flightRepository.findDTOVersionById(-1)).isEmpty();
+    }
+
+    @Test
+    public void persistInBatches_ShouldBatchInsertsWithPooledIds() {
+        List<Flight> flights = new ArrayList<>();
+        LocalDateTime departure = LocalDateTime.now().plusDays(2);
+        for (int i = 0; i < 120; i++) {
+            flights.add(newFlight(String.format("BT%04d", i), departure.plusMinutes(i)));
+        }
+
+        flightRepository.persistInBatches(flights);
+
+        assertThat(flights).extracting(Flight::getFlightId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        // A handful of sequence calls and batched inserts instead of one round trip per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+        assertThat(flightRepository.count()).isEqualTo(127);
+    }
+
+    private Flight newFlight(String flightNo, LocalDateTime departure) {
+        Airport origin = new Airport();
+        origin.setAirportCode("JFK");
+        Airport destination = new Airport();
+        destination.setAirportCode("LAX");
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode("773");
+
+        Flight flight = new Flight();
+        flight.setFlightNo(flightNo);
+        flight.setScheduledDeparture(departure);
+        flight.setScheduledArrival(departure.plusHours(5));
+        flight.setStatus("Scheduled");
+        flight.setDepartureAirport(origin);
+        flight.setArrivalAirport(destination);
+        flight.setAircraft(aircraft);
+        return flight;
+    }
+
+    private void assertFullyPopulated(FlightDTO dto) {
+        assertThat(dto.getDepartureAirportName()).isNotBlank();
+        assertThat(dto.getArrivalAirportName()).isNotBlank();
+        assertThat(dto.getAircraftModel()).isNotBlank();
+    }
+}
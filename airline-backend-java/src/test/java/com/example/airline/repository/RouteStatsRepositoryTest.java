@@ -0,0 +1,82 @@
+package com.example.airline.repository;
+
+import com.example.airline.dto.RouteStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@JdbcTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RouteStatsRepository.class)
+public class RouteStatsRepositoryTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    @Autowired
+    private RouteStatsRepository routeStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        insert("JFK", "LAX", DAY, 3, 2, 1, 1, 40, "12000.00");
+        insert("JFK", "LAX", DAY.plusDays(1), 2, 2, 2, 0, 30, "9000.50");
+        insert("LAX", "SFO", DAY, 1, 0, 0, 1, 0, "0.00");
+        // Outside every range queried below
+        insert("JFK", "LAX", DAY.plusDays(5), 9, 9, 9, 0, 90, "1.00");
+    }
+
+    @Test
+    public void findRouteTotals_ShouldSumDaysPerRoute() {
+        List<RouteStatsDTO> totals = routeStatsRepository.findRouteTotals(DAY, DAY.plusDays(1), null, null);
+
+        assertThat(totals)
+            .extracting(RouteStatsDTO::getDepartureAirportCode, RouteStatsDTO::getArrivalAirportCode,
+                RouteStatsDTO::getFlightDate, RouteStatsDTO::getFlights, RouteStatsDTO::getDeparted,
+                RouteStatsDTO::getOnTime, RouteStatsDTO::getCancelled, RouteStatsDTO::getTickets)
+            .containsExactly(
+                tuple("JFK", "LAX", null, 5L, 4L, 3L, 1L, 70L),
+                tuple("LAX", "SFO", null, 1L, 0L, 0L, 1L, 0L));
+        assertThat(totals.get(0).getOnTimeRate()).isEqualTo(0.75);
+        assertThat(totals.get(0).getRevenue()).isEqualByComparingTo(new BigDecimal("21000.50"));
+        // Nothing departed, so there is no rate rather than a zero one
+        assertThat(totals.get(1).getOnTimeRate()).isNull();
+    }
+
+    @Test
+    public void findDailyStats_WithRouteFilter_ShouldReturnOneRowPerDay() {
+        List<RouteStatsDTO> daily = routeStatsRepository.findDailyStats(DAY, DAY.plusDays(1), "JFK", "LAX");
+
+        assertThat(daily)
+            .extracting(RouteStatsDTO::getFlightDate, RouteStatsDTO::getFlights, RouteStatsDTO::getOnTimeRate)
+            .containsExactly(
+                tuple(DAY, 3L, 0.5),
+                tuple(DAY.plusDays(1), 2L, 1.0));
+    }
+
+    @Test
+    public void findDailyStats_WithOriginOnly_ShouldMatchAnyDestination() {
+        assertThat(routeStatsRepository.findDailyStats(DAY, DAY, "LAX", null))
+            .extracting(RouteStatsDTO::getArrivalAirportCode)
+            .containsExactly("SFO");
+    }
+
+    private void insert(String from, String to, LocalDate day, long flights, long departed, long onTime,
+                        long cancelled, long tickets, String revenue) {
+        jdbcTemplate.update("INSERT INTO route_daily_stats VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+            from, to, day, flights, departed, onTime, cancelled, tickets, new BigDecimal(revenue));
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.airline.repository;
+
+import com.example.airline.model.Weather;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class WeatherRepositoryTest {
+    private final DynamoDbEnhancedClient client = mock(DynamoDbEnhancedClient.class);
+    @SuppressWarnings("unchecked")
+    private final DynamoDbTable<Weather> weatherTable = mock(DynamoDbTable.class);
+    private WeatherRepository weatherRepository;
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(weatherTable).when(client).table(eq(WeatherRepository.WEATHER_TABLE), any());
+        weatherRepository = new WeatherRepository(client, mock(ExecutorService.class), mock(ExecutorService.class),
+                false, Duration.ofDays(7));
+    }
+
+    @Test
+    public void getWeather_WhenExpiredButNotYetDeleted_ShouldReturnNothing() {
+        when(weatherTable.getItem(any())).thenReturn(reading(Instant.now().getEpochSecond() - 60));
+
+        assertThat(weatherRepository.getWeather("JFK", 3600L)).isNull();
+    }
+
+    @Test
+    public void getWeather_WhenNotExpired_ShouldReturnReading() {
+        Weather unexpired = reading(Instant.now().getEpochSecond() + 3600);
+        Weather withoutExpiry = reading(null);
+
+        when(weatherTable.getItem(any())).thenReturn(unexpired, withoutExpiry);
+
+        assertThat(weatherRepository.getWeather("JFK", 3600L)).isSameAs(unexpired);
+        assertThat(weatherRepository.getWeather("JFK", 3600L)).isSameAs(withoutExpiry);
+    }
+
+    private static Weather reading(Long expiresAt) {
+        Weather weather = new Weather();
+        weather.setLocationId("JFK");
+        weather.setTimestamp(3600L);
+        weather.setExpiresAt(expiresAt);
+        return weather;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.BookingItineraryDTO;
+import com.example.airline.dto.TicketFlightDTO;
+import com.example.airline.dto.TicketItineraryDTO;
+import com.example.airline.model.Booking;
+import com.example.airline.model.Flight;
+import com.example.airline.model.Ticket;
+import com.example.airline.model.TicketFlight;
+import com.example.airline.model.TicketFlightId;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BookingService.class)
+public class BookingServiceTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        // A second passenger on ABC123 with a two-leg itinerary, persisted out of departure order
+        Booking booking = entityManager.find(Booking.class, "ABC123");
+        Ticket ticket = new Ticket();
+        ticket.setTicketNo("9999999999999");
+        ticket.setBooking(booking);
+        ticket.setPassengerId("PS999999");
+        ticket.setPassengerName("Alex Doe");
+        entityManager.persist(ticket);
+        addLeg(ticket, 7, "Economy", 300.00);
+        addLeg(ticket, 4, "Economy", 250.00);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void getItinerary_ShouldLoadEverythingInTwoStatements() {
+        Optional<BookingItineraryDTO> itinerary = bookingService.getItinerary("ABC123");
+
+        assertThat(itinerary).isPresent();
+        assertThat(itinerary.get().getTotalAmount()).isEqualTo(550.00);
+        assertThat(itinerary.get().getTickets())
+            .extracting(TicketItineraryDTO::getTicketNo)
+            .containsExactly("1234567890123", "9999999999999");
+
+        TicketItineraryDTO multiLeg = itinerary.get().getTickets().get(1);
+        assertThat(multiLeg.getFlights())
+            .extracting(leg -> leg.getFlight().getFlightNo())
+            .containsExactly("AA1004", "AA1007");
+        assertThat(multiLeg.getFlights())
+            .extracting(TicketFlightDTO::getAmount)
+            .containsExactly(250.00, 300.00);
+        assertThat(multiLeg.getFlights()).allSatisfy(leg -> {
+            assertThat(leg.getFlight().getDepartureAirportName()).isNotBlank();
+            assertThat(leg.getFlight().getArrivalAirportName()).isNotBlank();
+            assertThat(leg.getFlight().getAircraftModel()).isNotBlank();
+        });
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getItinerary_WithUnknownBooking_ShouldStopAfterOneStatement() {
+        assertThat(bookingService.getItinerary("ZZZ999")).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void addLeg(Ticket ticket, int flightId, String fareConditions, double amount) {
+        TicketFlight leg = new TicketFlight();
+        leg.setId(new TicketFlightId());
+        leg.setTicket(ticket);
+        leg.setFlight(entityManager.find(Flight.class, flightId));
+        leg.setFareConditions(fareConditions);
+        leg.setAmount(amount);
+        entityManager.persist(leg);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightStatusEvent;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlightEventStreamTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Queue<SseEmitter> emitters = new ConcurrentLinkedQueue<>();
+    // Held closed to stall writes until the test ends
+    private final CountDownLatch stalled = new CountDownLatch(1);
+    private FlightEventStream stream;
+
+    @AfterEach
+    public void tearDown() {
+        stalled.countDown();
+        if (stream != null) {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    public void onFlightChanged_ShouldOnlyDeliverMatchingEvents() throws Exception {
+        stream = newStream(16, 2, Duration.ofSeconds(5));
+        RecordingEmitter byAirport = subscribe(new RecordingEmitter(null), "JFK", null);
+        RecordingEmitter byFlight = subscribe(new RecordingEmitter(null), null, 7);
+
+        stream.onFlightChanged(event(4, "JFK", "LAX"));
+        stream.onFlightChanged(event(7, "ORD", "SFO"));
+        stream.onFlightChanged(event(8, "ORD", "SFO"));
+        // Matches both; once it arrives everything before it has been handled
+        stream.onFlightChanged(event(7, "ORD", "JFK"));
+
+        await(() -> byAirport.frames.size() == 2 && byFlight.frames.size() == 2);
+        assertThat(byAirport.data()).contains("\"flightId\":4").doesNotContain("\"flightId\":8");
+        assertThat(byFlight.data()).contains("\"flightId\":7").doesNotContain("\"flightId\":4");
+    }
+
+    @Test
+    public void offer_WhenQueueFills_ShouldEvictSubscriber() throws Exception {
+        stream = newStream(2, 2, Duration.ofSeconds(30));
+        subscribe(new RecordingEmitter(stalled), null, null);
+
+        // The first write blocks, so at most two queued events fit behind it
+        for (int i = 0; i < 5; i++) {
+            stream.onFlightChanged(event(4, "JFK", "LAX"));
+        }
+
+        assertThat(stream.getSubscriberCount()).isZero();
+        assertThat(meterRegistry.counter("flights.stream.evictions").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void drain_WhenWriteStalls_ShouldDropSubscriberWithoutBlockingOthers() throws Exception {
+        stream = newStream(16, 1, Duration.ofMillis(200));
+        subscribe(new RecordingEmitter(stalled), null, null);
+        RecordingEmitter healthy = subscribe(new RecordingEmitter(null), null, null);
+
+        stream.onFlightChanged(event(4, "JFK", "LAX"));
+        await(() -> {
+            stream.evictStalledWriters();
+            return stream.getSubscriberCount() == 1;
+        });
+        stream.onFlightChanged(event(5, "JFK", "LAX"));
+        stream.onFlightChanged(event(6, "JFK", "LAX"));
+
+        await(() -> healthy.frames.size() == 3);
+        assertThat(meterRegistry.counter("flights.stream.evictions").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void drain_WhileWriteStalls_ShouldKeepItsDispatcherFree() throws Exception {
+        stream = newStream(16, 1, Duration.ofSeconds(30));
+        RecordingEmitter stalledEmitter = subscribe(new RecordingEmitter(stalled), null, null);
+        RecordingEmitter healthy = subscribe(new RecordingEmitter(null), null, null);
+
+        // The only dispatcher thread would be stuck behind the stalled write if it waited on it
+        stream.onFlightChanged(event(4, "JFK", "LAX"));
+        stream.onFlightChanged(event(5, "JFK", "LAX"));
+
+        await(() -> healthy.frames.size() == 2);
+        assertThat(stalledEmitter.frames).isEmpty();
+        assertThat(stream.getSubscriberCount()).isEqualTo(2);
+    }
+
+    private FlightEventStream newStream(int queueCapacity, int dispatcherThreads, Duration sendTimeout) {
+        return new FlightEventStream(JsonMapper.builder().findAndAddModules().build(), meterRegistry, 100, queueCapacity, dispatcherThreads, 4,
+                Duration.ofMinutes(30), sendTimeout) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitters.remove();
+            }
+        };
+    }
+
+    private RecordingEmitter subscribe(RecordingEmitter emitter, String airportCode, Integer flightId) {
+        emitters.add(emitter);
+        assertThat(stream.subscribe(airportCode, flightId)).containsSame(emitter);
+        return emitter;
+    }
+
+    private static FlightStatusEvent event(int flightId, String from, String to) {
+        return new FlightStatusEvent(FlightStatusEvent.Type.STATUS_CHANGED, flightId, "AA" + flightId,
+                "Delayed", from, to, null, null, null, null);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // Records frames instead of writing them, optionally blocking each write on a latch
+    private static class RecordingEmitter extends SseEmitter {
+        final List<Set<DataWithMediaType>> frames = new CopyOnWriteArrayList<>();
+        final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            super(0L);
+            this.release = release;
+        }
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+            frames.add(items);
+        }
+
+        String data() {
+            return frames.stream()
+                    .flatMap(Set::stream)
+                    .map(item -> String.valueOf(item.getData()))
+                    .collect(Collectors.joining());
+        }
+    }
+}
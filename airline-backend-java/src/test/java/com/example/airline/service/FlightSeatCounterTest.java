@@ -0,0 +1,144 @@
+package com.example.airline.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlightSeatCounterTest {
+    private static final int THREADS = 32;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void tryReserve_UnderContention_ShouldNeverOversell() throws Exception {
+        FlightSeatCounter counter = new FlightSeatCounter(402, Map.of("Business", 2L));
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(500, () -> {
+            String fare = ThreadLocalRandom.current().nextBoolean() ? "Economy" : "Business";
+            if (counter.tryReserve(fare)) {
+                reserved.incrementAndGet();
+                counter.confirm();
+            }
+        });
+
+        assertThat(reserved.get()).isEqualTo(400);
+        assertThat(counter.getSeatsAvailable()).isZero();
+        assertThat(counter.getSeatsSold().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(402);
+        assertThat(counter.isIdle()).isTrue();
+    }
+
+    @Test
+    public void reserveRollbackAndRelease_UnderContention_ShouldBalance() throws Exception {
+        FlightSeatCounter counter = new FlightSeatCounter(50, Map.of());
+        AtomicInteger held = new AtomicInteger();
+
+        runConcurrently(2000, () -> {
+            if (!counter.tryReserve("Economy")) {
+                return;
+            }
+            int outcome = ThreadLocalRandom.current().nextInt(3);
+            if (outcome == 0) {
+                counter.rollback("Economy");
+            } else {
+                counter.confirm();
+                if (outcome == 1) {
+                    counter.release("Economy");
+                } else {
+                    held.incrementAndGet();
+                }
+            }
+            assertThat(counter.getSeatsAvailable()).isBetween(0, 50);
+        });
+
+        assertThat(held.get()).isLessThanOrEqualTo(50);
+        assertThat(counter.getSeatsAvailable()).isEqualTo(50 - held.get());
+        assertThat(counter.getSeatsSold().getOrDefault("Economy", 0L)).isEqualTo(held.get());
+    }
+
+    @Test
+    public void resync_ShouldOnlyApplyWhenNothingChangedSinceStamped() {
+        FlightSeatCounter counter = new FlightSeatCounter(10, Map.of("Economy", 2L));
+        FlightSeatCounter database = new FlightSeatCounter(10, Map.of("Economy", 3L));
+
+        long stale = counter.stamp();
+        counter.tryReserve("Economy");
+        assertThat(counter.stamp()).isNull();
+        counter.rollback("Economy");
+
+        assertThat(counter.resync(stale, database)).isFalse();
+        assertThat(counter.resync(counter.stamp(), database)).isTrue();
+        assertThat(counter.getSeatsAvailable()).isEqualTo(7);
+        assertThat(counter.getSeatsSold()).containsEntry("Economy", 3L);
+    }
+
+    @Test
+    public void resync_WhenCountReturnsToStampedValue_ShouldNotApply() {
+        FlightSeatCounter counter = new FlightSeatCounter(10, Map.of("Economy", 2L));
+        long stamp = counter.stamp();
+        // Counted after a cancellation committed but before a booking did
+        FlightSeatCounter database = new FlightSeatCounter(10, Map.of("Economy", 1L));
+        counter.release("Economy");
+        counter.tryReserve("Economy");
+        counter.confirm();
+
+        assertThat(counter.getSeatsAvailable()).isEqualTo(FlightSeatCounter.availableOf(stamp));
+        assertThat(counter.resync(stamp, database)).isFalse();
+        assertThat(counter.getSeatsAvailable()).isEqualTo(8);
+    }
+
+    @Test
+    public void retire_ShouldOnlyStopReservationsWhenUntouchedSinceStamped() {
+        FlightSeatCounter counter = new FlightSeatCounter(10, Map.of());
+        long stale = counter.stamp();
+        counter.tryReserve("Economy");
+        counter.confirm();
+
+        assertThat(counter.retire(stale)).isFalse();
+        assertThat(counter.retire(counter.stamp())).isTrue();
+        assertThat(counter.tryReserve("Economy")).isFalse();
+        assertThat(counter.isRetired()).isTrue();
+        assertThat(counter.getSeatsAvailable()).isEqualTo(9);
+    }
+
+    private void runConcurrently(int tasksPerThread, Runnable task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int n = 0; n < tasksPerThread; n++) {
+                    task.run();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+}
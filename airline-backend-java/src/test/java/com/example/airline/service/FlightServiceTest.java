@@ -0,0 +1,169 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightBatchResult;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightStatusEvent;
+import com.example.airline.exception.FlightStatusConflictException;
+import com.example.airline.model.Aircraft;
+import com.example.airline.model.Airport;
+import com.example.airline.model.Flight;
+import com.example.airline.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FlightService.class, AirportService.class, AircraftService.class,
+    FlightWindowIndex.class, SimpleMeterRegistry.class})
+@RecordApplicationEvents
+public class FlightServiceTest {
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    public void transitionFlightStatus_WhenStatusMatches_ShouldUpdateAndBumpVersion() {
+        FlightDTO flight = flightService.transitionFlightStatus(4, "Scheduled", "Delayed");
+
+        assertThat(flight.getStatus()).isEqualTo("Delayed");
+        assertThat(flightRepository.findVersionById(4)).contains(1);
+    }
+
+    @Test
+    public void transitionFlightStatus_WhenStatusHasMoved_ShouldConflict() {
+        flightService.transitionFlightStatus(4, "Scheduled", "Delayed");
+
+        assertThatThrownBy(() -> flightService.transitionFlightStatus(4, "Scheduled", "Cancelled"))
+            .isInstanceOf(FlightStatusConflictException.class);
+        assertThat(flightRepository.findFlightDTOById(4)).get()
+            .extracting(FlightDTO::getStatus).isEqualTo("Delayed");
+    }
+
+    @Test
+    public void transitionFlightStatus_WhenFlightMissing_ShouldReject() {
+        assertThatThrownBy(() -> flightService.transitionFlightStatus(-1, "Scheduled", "Delayed"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void saveFlight_WithStaleVersion_ShouldFailOptimisticLock() {
+        FlightDTO current = flightRepository.findFlightDTOById(4).orElseThrow();
+        flightService.transitionFlightStatus(4, "Scheduled", "Delayed");
+
+        Flight stale = new Flight();
+        stale.setFlightId(current.getFlightId());
+        stale.setFlightNo(current.getFlightNo());
+        stale.setScheduledDeparture(current.getScheduledDeparture());
+        stale.setScheduledArrival(current.getScheduledArrival());
+        stale.setStatus("Cancelled");
+        stale.setDepartureAirport(airport(current.getDepartureAirportCode()));
+        stale.setArrivalAirport(airport(current.getArrivalAirportCode()));
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode(current.getAircraftCode());
+        stale.setAircraft(aircraft);
+        stale.setVersion(0);
+
+        assertThatThrownBy(() -> flightService.saveFlight(stale))
+            .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    public void saveFlights_WithMissingReferences_ShouldRejectOnlyThoseRows() {
+        Flight noAircraft = newFlight("AA9001");
+        noAircraft.setAircraft(null);
+        Flight nullAirportCode = newFlight("AA9002");
+        nullAirportCode.setDepartureAirport(airport(null));
+
+        List<FlightBatchResult> results = flightService.saveFlights(
+            List.of(noAircraft, nullAirportCode, newFlight("AA9003")));
+
+        assertThat(results).extracting(FlightBatchResult::getStatus).containsExactly(
+            FlightBatchResult.Status.REJECTED, FlightBatchResult.Status.REJECTED, FlightBatchResult.Status.CREATED);
+        assertThat(results.get(0).getError()).isEqualTo("aircraft code is required");
+    }
+
+    @Test
+    public void saveFlights_WhenNoRowHasCodes_ShouldRejectRowsInsteadOfFailing() {
+        Flight flight = newFlight("AA9004");
+        flight.setDepartureAirport(null);
+        flight.setArrivalAirport(null);
+        flight.setAircraft(null);
+
+        assertThat(flightService.saveFlights(List.of(flight)))
+            .extracting(FlightBatchResult::getStatus)
+            .containsExactly(FlightBatchResult.Status.REJECTED);
+    }
+
+    @Test
+    public void saveFlights_ShouldPublishSavedEventPerCreatedFlight() {
+        Flight rejected = newFlight("AA9005");
+        rejected.setAircraft(null);
+
+        List<FlightBatchResult> results = flightService.saveFlights(List.of(rejected, newFlight("AA9006")));
+
+        assertThat(events.stream(FlightStatusEvent.class))
+            .extracting(FlightStatusEvent::getType, FlightStatusEvent::getFlightId)
+            .containsExactly(tuple(FlightStatusEvent.Type.SAVED, results.get(1).getFlightId()));
+    }
+
+    @Test
+    public void deleteFlight_ShouldPublishDeletedEventWithTheFlight() {
+        flightService.deleteFlight(5);
+
+        assertThat(flightRepository.findById(5)).isEmpty();
+        assertThat(events.stream(FlightStatusEvent.class))
+            .extracting(FlightStatusEvent::getType, FlightStatusEvent::getFlightId,
+                FlightStatusEvent::getFlightNo)
+            .containsExactly(tuple(FlightStatusEvent.Type.DELETED, 5, "AA1005"));
+    }
+
+    @Test
+    public void deleteFlight_WhenFlightMissing_ShouldPublishNothing() {
+        flightService.deleteFlight(-1);
+
+        assertThat(events.stream(FlightStatusEvent.class)).isEmpty();
+    }
+
+    private static Flight newFlight(String flightNo) {
+        LocalDateTime departure = LocalDateTime.now().plusDays(1);
+        Flight flight = new Flight();
+        flight.setFlightNo(flightNo);
+        flight.setScheduledDeparture(departure);
+        flight.setScheduledArrival(departure.plusHours(6));
+        flight.setStatus("Scheduled");
+        flight.setDepartureAirport(airport("JFK"));
+        flight.setArrivalAirport(airport("LAX"));
+        Aircraft aircraft = new Aircraft();
+        aircraft.setAircraftCode("773");
+        flight.setAircraft(aircraft);
+        return flight;
+    }
+
+    private static Airport airport(String code) {
+        Airport airport = new Airport();
+        airport.setAirportCode(code);
+        return airport;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightWithWeatherDTO;
+import com.example.airline.model.Weather;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FlightWeatherServiceTest {
+    private final FlightService flightService = mock(FlightService.class);
+    private final WeatherService weatherService = mock(WeatherService.class);
+    private final FlightWindowIndex flightWindowIndex = mock(FlightWindowIndex.class);
+    private final FlightWeatherService flightWeatherService =
+        new FlightWeatherService(flightService, weatherService, flightWindowIndex);
+
+    @Test
+    public void getFlightWithWeather_WhenIndexed_ShouldOverlapFlightAndWeatherLookups() throws Exception {
+        CountDownLatch weatherStarted = new CountDownLatch(2);
+        CountDownLatch flightStarted = new CountDownLatch(1);
+        when(flightWindowIndex.airportsOf(4)).thenReturn(List.of("JFK", "LAX"));
+        // Each lookup only finishes once the other has started, so run one after the other they would hang
+        when(weatherService.getLatestWeatherAsync(anyString())).thenAnswer(invocation -> {
+            weatherStarted.countDown();
+            String airportCode = invocation.getArgument(0);
+            return CompletableFuture.supplyAsync(() -> {
+                await(flightStarted);
+                return weather(airportCode);
+            });
+        });
+        when(flightService.getFlightById(4)).thenAnswer(invocation -> {
+            flightStarted.countDown();
+            await(weatherStarted);
+            return Optional.of(flight());
+        });
+
+        FlightWithWeatherDTO result = flightWeatherService.getFlightWithWeather(4)
+            .get(5, TimeUnit.SECONDS).orElseThrow();
+
+        assertThat(result.getDepartureWeather().getLocationId()).isEqualTo("JFK");
+        assertThat(result.getArrivalWeather().getLocationId()).isEqualTo("LAX");
+    }
+
+    @Test
+    public void getFlightWithWeather_WhenNotIndexed_ShouldLookUpAirportsFromTheFlight() throws Exception {
+        when(flightWindowIndex.airportsOf(4)).thenReturn(List.of());
+        when(flightService.getFlightById(4)).thenReturn(Optional.of(flight()));
+        when(weatherService.getLatestWeatherAsync(anyString())).thenAnswer(invocation ->
+            CompletableFuture.completedFuture(weather(invocation.getArgument(0))));
+
+        FlightWithWeatherDTO result = flightWeatherService.getFlightWithWeather(4)
+            .get(5, TimeUnit.SECONDS).orElseThrow();
+
+        assertThat(result.getDepartureWeather().getLocationId()).isEqualTo("JFK");
+        assertThat(result.getArrivalWeather().getLocationId()).isEqualTo("LAX");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Lookups did not overlap");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FlightDTO flight() {
+        LocalDateTime departure = LocalDateTime.now().plusHours(2);
+        FlightDTO flight = new FlightDTO();
+        flight.setFlightId(4);
+        flight.setFlightNo("AA1004");
+        flight.setScheduledDeparture(departure);
+        flight.setScheduledArrival(departure.plusHours(6));
+        flight.setDepartureAirportCode("JFK");
+        flight.setArrivalAirportCode("LAX");
+        flight.setStatus("Scheduled");
+        return flight;
+    }
+
+    private static Weather weather(String locationId) {
+        Weather weather = new Weather();
+        weather.setLocationId(locationId);
+        weather.setTimestamp(3600L);
+        weather.setTemperature(70.0);
+        return weather;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightCursor;
+import com.example.airline.dto.FlightDTO;
+import com.example.airline.dto.FlightStatusEvent;
+import com.example.airline.dto.FlightVersionRow;
+import com.example.airline.dto.VersionedFlightRow;
+import com.example.airline.repository.FlightRepository;
+import com.example.airline.repository.FlightSpecifications;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FlightWindowIndex.class, SimpleMeterRegistry.class})
+public class FlightWindowIndexTest {
+
+    @Autowired
+    private FlightWindowIndex index;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    public void setUp() {
+        index.refresh();
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    public void find_InsideHorizon_ShouldPageLikeTheDatabase() {
+        LocalDateTime end = now.plusHours(8);
+
+        List<FlightDTO> firstPage = index.find(now, end, null, 2).orElseThrow();
+        FlightCursor after = FlightCursor.after(firstPage.get(1));
+        List<FlightDTO> secondPage = index.find(now, end, after, 10).orElseThrow();
+
+        assertThat(firstPage).isEqualTo(database(now, end, null, 2));
+        assertThat(secondPage).isEqualTo(database(now, end, after, 10));
+        assertThat(firstPage).extracting(FlightDTO::getFlightNo).containsExactly("AA1004", "AA1005");
+        assertThat(secondPage).extracting(FlightDTO::getFlightNo).containsExactly("AA1006", "AA1007");
+    }
+
+    @Test
+    public void find_BeyondHorizon_ShouldFallBackToDatabase() {
+        assertThat(index.find(now, now.plusDays(3), null, 10)).isEmpty();
+        assertThat(index.find(now.minusDays(1), now, null, 10)).isEmpty();
+    }
+
+    @Test
+    public void refresh_ShouldPickUpChangedAndDeletedFlights() {
+        flightRepository.updateStatusIfCurrent(4, "Scheduled", "Delayed");
+        flightRepository.deleteById(5);
+        flightRepository.flush();
+
+        index.refresh();
+
+        assertThat(index.find(now, now.plusHours(8), null, 10).orElseThrow())
+            .extracting(FlightDTO::getFlightNo, FlightDTO::getStatus)
+            .containsExactly(
+                tuple("AA1004", "Delayed"),
+                tuple("AA1006", "Scheduled"),
+                tuple("AA1007", "Cancelled"));
+    }
+
+    @Test
+    public void onFlightChanged_WithStaleRead_ShouldKeepNewerVersion() {
+        FlightRepository repository = mock(FlightRepository.class);
+        FlightWindowIndex isolated = new FlightWindowIndex(repository, new SimpleMeterRegistry(),
+            true, Duration.ofDays(2), Duration.ofHours(1));
+        LocalDateTime departure = now.plusHours(2);
+        when(repository.findVersionsDepartingBetween(any(), any()))
+            .thenReturn(List.of(new FlightVersionRow(4, 2)));
+        when(repository.findVersionedFlightDTOsByIds(any()))
+            .thenReturn(List.of(row(departure, "Delayed", 2)));
+        isolated.refresh();
+
+        // Read before the version 2 write, applied after it
+        when(repository.findVersionedFlightDTOById(4)).thenReturn(Optional.of(row(departure, "Scheduled", 1)));
+        isolated.onFlightChanged(new FlightStatusEvent(FlightStatusEvent.Type.STATUS_CHANGED, 4, "AA1004",
+            "Scheduled", "JFK", "LAX", departure, null, null, null));
+
+        assertThat(isolated.find(now, now.plusHours(8), null, 10).orElseThrow())
+            .extracting(FlightDTO::getStatus)
+            .containsExactly("Delayed");
+    }
+
+    @Test
+    public void find_ShouldReturnCopiesOfIndexedFlights() {
+        index.find(now, now.plusHours(8), null, 10).orElseThrow().get(0).setStatus("Mutated");
+
+        assertThat(index.find(now, now.plusHours(8), null, 10).orElseThrow())
+            .extracting(FlightDTO::getStatus)
+            .doesNotContain("Mutated");
+    }
+
+    @Test
+    public void refresh_WithFlightDeletedWhileQuerying_ShouldNotBringItBack() {
+        FlightRepository repository = mock(FlightRepository.class);
+        FlightWindowIndex isolated = new FlightWindowIndex(repository, new SimpleMeterRegistry(),
+            true, Duration.ofDays(2), Duration.ofHours(1));
+        LocalDateTime departure = now.plusHours(2);
+        isolated.refresh();
+        when(repository.findVersionsDepartingBetween(any(), any()))
+            .thenReturn(List.of(new FlightVersionRow(4, 1)));
+        // The delete commits between the poll's two queries
+        when(repository.findVersionedFlightDTOsByIds(any())).thenAnswer(invocation -> {
+            isolated.onFlightChanged(new FlightStatusEvent(FlightStatusEvent.Type.DELETED, 4, "AA1004",
+                "Scheduled", "JFK", "LAX", departure, null, null, null));
+            return List.of(row(departure, "Scheduled", 1));
+        });
+        when(repository.findVersionedFlightDTOById(4)).thenReturn(Optional.empty());
+        isolated.refresh();
+
+        assertThat(isolated.find(now, now.plusHours(8), null, 10).orElseThrow()).isEmpty();
+    }
+
+    @Test
+    public void refresh_WithFlightSavedWhileQuerying_ShouldKeepIt() {
+        FlightRepository repository = mock(FlightRepository.class);
+        FlightWindowIndex isolated = new FlightWindowIndex(repository, new SimpleMeterRegistry(),
+            true, Duration.ofDays(2), Duration.ofHours(1));
+        LocalDateTime departure = now.plusHours(2);
+        isolated.refresh();
+        // Committed after the poll read the versions, applied before it takes the lock
+        when(repository.findVersionedFlightDTOById(4)).thenReturn(Optional.of(row(departure, "Scheduled", 0)));
+        when(repository.findVersionsDepartingBetween(any(), any())).thenAnswer(invocation -> {
+            isolated.onFlightChanged(new FlightStatusEvent(FlightStatusEvent.Type.SAVED, 4, "AA1004",
+                "Scheduled", "JFK", "LAX", departure, null, null, null));
+            return List.of();
+        });
+        isolated.refresh();
+
+        assertThat(isolated.find(now, now.plusHours(8), null, 10).orElseThrow())
+            .extracting(FlightDTO::getFlightNo)
+            .containsExactly("AA1004");
+    }
+
+    private static VersionedFlightRow row(LocalDateTime departure, String status, int version) {
+        return new VersionedFlightRow(4, "AA1004", departure, departure.plusHours(6),
+            "JFK", "LAX", status, "773", null, null,
+            "John F Kennedy International Airport", "Los Angeles International Airport", "Boeing 777-300",
+            version);
+    }
+
+    private List<FlightDTO> database(LocalDateTime start, LocalDateTime end, FlightCursor after, int limit) {
+        return flightRepository.findFlightDTOs(FlightSpecifications.departsBetween(start, end), after, limit);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.airline.service;
+
+import com.example.airline.model.Weather;
+import com.example.airline.repository.WeatherAsyncRepository;
+import com.example.airline.repository.WeatherRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LatestWeatherCacheTest {
+
+    private WeatherRepository weatherRepository;
+    private ExecutorService executor;
+    private SimpleMeterRegistry meterRegistry;
+    private LatestWeatherCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        weatherRepository = mock(WeatherRepository.class);
+        ObjectProvider<WeatherAsyncRepository> noAsyncRepository = mock(ObjectProvider.class);
+        executor = Executors.newFixedThreadPool(4);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new LatestWeatherCache(weatherRepository, noAsyncRepository, executor, meterRegistry,
+                Duration.ofMinutes(1), Duration.ofMinutes(5), 100);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void get_ConcurrentMisses_ShouldQueryDynamoOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(weatherRepository.getLatestWeather("JFK")).thenAnswer(invocation -> {
+            release.await();
+            return reading("JFK", 100L);
+        });
+
+        List<CompletableFuture<Weather>> lookups = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            lookups.add(cache.get("JFK"));
+        }
+        release.countDown();
+
+        assertThat(lookups).allSatisfy(lookup -> assertThat(lookup.get().getTimestamp()).isEqualTo(100L));
+        assertThat(cache.get("JFK").get().getTimestamp()).isEqualTo(100L);
+        verify(weatherRepository, times(1)).getLatestWeather("JFK");
+        assertThat(meterRegistry.get("cache.hit.ratio").tag("cache", "latestWeather").gauge().value())
+                .isGreaterThan(0.0);
+    }
+
+    @Test
+    public void update_ShouldWriteThroughAndKeepNewestReading() throws Exception {
+        cache.update(reading("LAX", 200L));
+        cache.update(reading("LAX", 150L));
+
+        assertThat(cache.get("LAX").get().getTimestamp()).isEqualTo(200L);
+        verify(weatherRepository, never()).getLatestWeather(any());
+    }
+
+    private Weather reading(String locationId, Long timestamp) {
+        Weather weather = new Weather();
+        weather.setLocationId(locationId);
+        weather.setTimestamp(timestamp);
+        weather.setTemperature(20.0);
+        return weather;
+    }
+}
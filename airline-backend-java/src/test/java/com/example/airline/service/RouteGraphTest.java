@@ -0,0 +1,67 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.RouteItineraryDTO;
+import com.example.airline.dto.RouteLegDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteGraphTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 1, 0, 0);
+    private static final Duration CONNECTION = Duration.ofMinutes(45);
+    private static final Duration MAX_TRIP = Duration.ofDays(1);
+
+    private final RouteGraph graph = RouteGraph.build(List.of(
+            leg(1, "JFK", "SFO", 9, 0, 15, 0),
+            leg(2, "JFK", "ORD", 8, 0, 10, 0),
+            // Leaves 30 minutes after flight 2 lands, too tight to connect
+            leg(3, "ORD", "SFO", 10, 30, 12, 30),
+            leg(4, "ORD", "SFO", 11, 0, 13, 30),
+            leg(5, "SFO", "JFK", 16, 0, 23, 59)),
+        DAY, DAY.plusDays(1));
+
+    @Test
+    public void search_ShouldReturnDirectAndFasterConnection() {
+        List<RouteItineraryDTO> itineraries = graph.search("JFK", "SFO", DAY, 2, CONNECTION, MAX_TRIP);
+
+        assertThat(itineraries).hasSize(2);
+        assertThat(itineraries.get(0).getConnections()).isZero();
+        assertThat(itineraries.get(0).getLegs()).extracting(RouteLegDTO::getFlightId).containsExactly(1);
+        assertThat(itineraries.get(1).getConnections()).isEqualTo(1);
+        assertThat(itineraries.get(1).getLegs()).extracting(RouteLegDTO::getFlightId).containsExactly(2, 4);
+        assertThat(itineraries.get(1).getArrival()).isEqualTo(DAY.withHour(13).withMinute(30));
+        assertThat(itineraries.get(1).getDurationMinutes()).isEqualTo(330);
+    }
+
+    @Test
+    public void search_WithoutConnections_ShouldReturnDirectOnly() {
+        List<RouteItineraryDTO> itineraries = graph.search("JFK", "SFO", DAY, 1, CONNECTION, MAX_TRIP);
+
+        assertThat(itineraries).extracting(RouteItineraryDTO::getConnections).containsExactly(0);
+    }
+
+    @Test
+    public void search_ShouldSkipLegsDepartingBeforeDepartAfter() {
+        List<RouteItineraryDTO> itineraries = graph.search("JFK", "SFO", DAY.withHour(8).withMinute(30),
+            2, CONNECTION, MAX_TRIP);
+
+        assertThat(itineraries).hasSize(1);
+        assertThat(itineraries.get(0).getLegs()).extracting(RouteLegDTO::getFlightId).containsExactly(1);
+    }
+
+    @Test
+    public void search_WithUnknownAirport_ShouldReturnNothing() {
+        assertThat(graph.search("JFK", "LHR", DAY, 2, CONNECTION, MAX_TRIP)).isEmpty();
+    }
+
+    private static RouteGraph.Leg leg(int flightId, String from, String to,
+                                      int departureHour, int departureMinute, int arrivalHour, int arrivalMinute) {
+        return new RouteGraph.Leg(flightId, "AA" + flightId, from, to,
+            DAY.withHour(departureHour).withMinute(departureMinute),
+            DAY.withHour(arrivalHour).withMinute(arrivalMinute));
+    }
+}
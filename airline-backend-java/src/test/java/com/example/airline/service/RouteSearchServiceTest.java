@@ -0,0 +1,80 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.FlightStatusEvent;
+import com.example.airline.dto.VersionedFlightRow;
+import com.example.airline.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RouteSearchServiceTest {
+    private final FlightRepository flightRepository = mock(FlightRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime departure = LocalDateTime.now().plusHours(2);
+    private RouteSearchService routeSearchService;
+
+    @BeforeEach
+    public void setUp() {
+        routeSearchService = new RouteSearchService(flightRepository, mock(AirportService.class), meterRegistry,
+            Duration.ofDays(7), Duration.ofDays(1));
+        when(flightRepository.findBookableVersionedFlightDTOsDepartingBetween(any(), any()))
+            .thenReturn(List.of(row("Scheduled", 3)));
+        routeSearchService.reload();
+    }
+
+    @Test
+    public void rebuildIfChanged_WithRowOlderThanHeldLeg_ShouldKeepLeg() {
+        when(flightRepository.findVersionedFlightDTOsByIds(any())).thenReturn(List.of(row("Cancelled", 2)));
+
+        routeSearchService.onFlightChanged(event());
+        routeSearchService.rebuildIfChanged();
+
+        assertThat(legs()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void rebuildIfChanged_WithNewerCancelledRow_ShouldRemoveLeg() {
+        when(flightRepository.findVersionedFlightDTOsByIds(any())).thenReturn(List.of(row("Cancelled", 4)));
+
+        routeSearchService.onFlightChanged(event());
+        routeSearchService.rebuildIfChanged();
+
+        assertThat(legs()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void rebuildIfChanged_WithDeletedFlight_ShouldRemoveLeg() {
+        when(flightRepository.findVersionedFlightDTOsByIds(any())).thenReturn(List.of());
+
+        routeSearchService.onFlightChanged(event());
+        routeSearchService.rebuildIfChanged();
+
+        assertThat(legs()).isEqualTo(0.0);
+    }
+
+    private double legs() {
+        return meterRegistry.get("routes.graph.legs").gauge().value();
+    }
+
+    // The event's contents are stale on purpose: only the re-read row counts
+    private FlightStatusEvent event() {
+        return new FlightStatusEvent(FlightStatusEvent.Type.STATUS_CHANGED, 4, "AA1004",
+            "Scheduled", "JFK", "LAX", departure, departure.plusHours(6), null, null);
+    }
+
+    private VersionedFlightRow row(String status, int version) {
+        return new VersionedFlightRow(4, "AA1004", departure, departure.plusHours(6),
+            "JFK", "LAX", status, "773", null, null,
+            "John F Kennedy International Airport", "Los Angeles International Airport", "Boeing 777-300",
+            version);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.airline.service;
+
+import com.example.airline.repository.RouteStatsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class RouteStatsServiceTest {
+    private final RouteStatsRepository routeStatsRepository = mock(RouteStatsRepository.class);
+    private final RouteStatsService routeStatsService = new RouteStatsService(routeStatsRepository);
+
+    @Test
+    public void getRouteTotals_WithoutDates_ShouldCoverTheLastDefaultDaysUpToToday() {
+        LocalDate today = LocalDate.now();
+
+        routeStatsService.getRouteTotals(null, null, "JFK", null);
+
+        verify(routeStatsRepository).findRouteTotals(
+            today.minusDays(RouteStatsService.DEFAULT_DAYS - 1), today, "JFK", null);
+    }
+
+    @Test
+    public void getDailyStats_WithOnlyTo_ShouldEndTheDefaultRangeThere() {
+        LocalDate to = LocalDate.of(2025, 3, 31);
+
+        routeStatsService.getDailyStats(null, to, null, null);
+
+        verify(routeStatsRepository).findDailyStats(LocalDate.of(2025, 3, 2), to, null, null);
+    }
+
+    @Test
+    public void getDailyStats_WithMaxDays_ShouldBeAccepted() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = from.plusDays(RouteStatsService.MAX_DAYS - 1);
+
+        routeStatsService.getDailyStats(from, to, null, null);
+
+        verify(routeStatsRepository).findDailyStats(from, to, null, null);
+    }
+
+    @Test
+    public void getDailyStats_BeyondMaxDays_ShouldReject() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+
+        assertThatThrownBy(() -> routeStatsService.getDailyStats(
+                from, from.plusDays(RouteStatsService.MAX_DAYS), null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(String.valueOf(RouteStatsService.MAX_DAYS));
+        verify(routeStatsRepository, never()).findDailyStats(any(), any(), any(), any());
+    }
+
+    @Test
+    public void getRouteTotals_WithFromAfterTo_ShouldReject() {
+        LocalDate to = LocalDate.of(2025, 1, 1);
+
+        assertThatThrownBy(() -> routeStatsService.getRouteTotals(to.plusDays(1), to, null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("from must not be after to");
+    }
+}
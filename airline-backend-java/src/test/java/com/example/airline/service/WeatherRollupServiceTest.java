@@ -0,0 +1,95 @@
+package com.example.airline.service;
+
+import com.example.airline.model.Weather;
+import com.example.airline.model.WeatherRollup;
+import com.example.airline.model.WeatherRollup.Resolution;
+import com.example.airline.repository.AirportRepository;
+import com.example.airline.repository.WeatherRepository;
+import com.example.airline.repository.WeatherRollupRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class WeatherRollupServiceTest {
+
+    @Test
+    public void aggregate_ShouldSummarizeReadingsAndSkipMissingValues() {
+        Weather partial = reading(3700L, 80.0, "Rain");
+        partial.setHumidity(null);
+
+        WeatherRollup rollup = WeatherRollupService.aggregate("JFK", Resolution.HOUR, 3600L, List.of(
+                reading(3600L, 60.0, "Rain"),
+                reading(3650L, 70.0, "Clear"),
+                partial));
+
+        assertThat(rollup.getSeries()).isEqualTo("JFK#HOUR");
+        assertThat(rollup.getCount()).isEqualTo(3);
+        assertThat(rollup.getTemperatureMin()).isEqualTo(60.0);
+        assertThat(rollup.getTemperatureMax()).isEqualTo(80.0);
+        assertThat(rollup.getTemperatureAvg()).isEqualTo(70.0);
+        assertThat(rollup.getHumidityAvg()).isEqualTo(50.0);
+        assertThat(rollup.getConditions()).isEqualTo("Rain");
+    }
+
+    @Test
+    public void merge_ShouldWeightAveragesByReadingCount() {
+        WeatherRollup first = WeatherRollupService.aggregate("JFK", Resolution.HOUR, 0L, List.of(
+                reading(0L, 60.0, "Clear")));
+        WeatherRollup second = WeatherRollupService.aggregate("JFK", Resolution.HOUR, 3600L, List.of(
+                reading(3600L, 90.0, "Rain"),
+                reading(3700L, 90.0, "Rain"),
+                reading(3800L, 90.0, "Rain")));
+
+        WeatherRollup day = WeatherRollupService.merge("JFK", Resolution.DAY, 0L, List.of(first, second));
+
+        assertThat(day.getSeries()).isEqualTo("JFK#DAY");
+        assertThat(day.getCount()).isEqualTo(4);
+        assertThat(day.getTemperatureMin()).isEqualTo(60.0);
+        assertThat(day.getTemperatureMax()).isEqualTo(90.0);
+        assertThat(day.getTemperatureAvg()).isEqualTo(82.5);
+        assertThat(day.getConditions()).isEqualTo("Rain");
+    }
+
+    @Test
+    public void rollUpWritten_ShouldRollUpEachRunOfQueuedHoursOnce() {
+        WeatherRepository weatherRepository = mock(WeatherRepository.class);
+        WeatherRollupService service = new WeatherRollupService(weatherRepository,
+                mock(WeatherRollupRepository.class), mock(AirportRepository.class),
+                true, Duration.ofDays(2), Duration.ofDays(31), Duration.ofHours(3));
+        // Backfilled readings from 2024-03-01, well outside the scheduled window
+        long day = 1709251200L;
+
+        service.markWritten(List.of(
+                reading(day + 60, 60.0, "Clear"),
+                reading(day + 3600 + 60, 61.0, "Clear"),
+                reading(day + 3600 + 120, 62.0, "Clear"),
+                reading(day + 5 * 3600, 63.0, "Rain")));
+        service.rollUpWritten();
+
+        verify(weatherRepository).getWeatherForLocation("JFK", day, day + 2 * 3600 - 1);
+        verify(weatherRepository).getWeatherForLocation("JFK", day + 5 * 3600, day + 6 * 3600 - 1);
+
+        // Nothing is left queued
+        service.rollUpWritten();
+        verify(weatherRepository, times(2)).getWeatherForLocation(anyString(), anyLong(), anyLong());
+    }
+
+    private static Weather reading(Long timestamp, Double temperature, String conditions) {
+        Weather weather = new Weather();
+        weather.setLocationId("JFK");
+        weather.setTimestamp(timestamp);
+        weather.setTemperature(temperature);
+        weather.setHumidity(50.0);
+        weather.setWindSpeed(10.0);
+        weather.setConditions(conditions);
+        return weather;
+    }
+}
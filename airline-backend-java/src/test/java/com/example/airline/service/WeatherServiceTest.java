@@ -0,0 +1,80 @@
+package com.example.airline.service;
+
+import com.example.airline.dto.WeatherBatchResult;
+import com.example.airline.model.BucketedWeather;
+import com.example.airline.model.Weather;
+import com.example.airline.repository.WeatherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WeatherServiceTest {
+    private final WeatherRepository weatherRepository = mock(WeatherRepository.class);
+    private final LatestWeatherCache latestWeatherCache = mock(LatestWeatherCache.class);
+    private final WeatherRollupService weatherRollupService = mock(WeatherRollupService.class);
+    private WeatherService weatherService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        weatherService = new WeatherService(weatherRepository, mock(ObjectProvider.class),
+                mock(ExecutorService.class), latestWeatherCache, weatherRollupService, Duration.ofDays(90));
+    }
+
+    @Test
+    public void saveWeatherBatch_ShouldLeaveOutReadingsDynamoReturnedAsCopies() {
+        Weather saved = reading("JFK", 3600L);
+        Weather rejected = reading("LAX", 3600L);
+        // Unprocessed items are rebuilt by the SDK, never the instances that were sent
+        when(weatherRepository.saveWeatherBatch(anyList())).thenReturn(List.of(BucketedWeather.of(rejected)));
+
+        WeatherBatchResult result = weatherService.saveWeatherBatch(List.of(saved, rejected));
+
+        assertThat(result.getFailed()).isEqualTo(1);
+        verify(latestWeatherCache).update(saved);
+        verify(latestWeatherCache, never()).update(rejected);
+        verify(weatherRollupService).markWritten(List.of(saved));
+    }
+
+    @Test
+    public void saveWeatherBatch_WithRepeatedReading_ShouldCountItWrittenOnce() {
+        when(weatherRepository.saveWeatherBatch(anyList())).thenReturn(List.of());
+
+        WeatherBatchResult result = weatherService.saveWeatherBatch(
+                List.of(reading("JFK", 3600L), reading("JFK", 3600L), reading("LAX", 3600L)));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getWritten()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+    }
+
+    @Test
+    public void saveWeatherBatch_OverMaxBatchSize_ShouldRejectWithoutWriting() {
+        List<Weather> observations = Collections.nCopies(WeatherService.MAX_BATCH_SIZE + 1, reading("JFK", 3600L));
+
+        assertThatThrownBy(() -> weatherService.saveWeatherBatch(observations))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(weatherRepository, never()).saveWeatherBatch(anyList());
+    }
+
+    private static Weather reading(String locationId, Long timestamp) {
+        Weather weather = new Weather();
+        weather.setLocationId(locationId);
+        weather.setTimestamp(timestamp);
+        weather.setTemperature(70.0);
+        return weather;
+    }
+}
@@ -0,0 +1,51 @@
+-- H2 port of db/postgres/init/03_sample_data.sql used by repository tests
+
+INSERT INTO aircrafts (aircraft_code, model, range, seats_total) VALUES
+    ('773', 'Boeing 777-300', 11100, 402),
+    ('763', 'Boeing 767-300', 7900, 222),
+    ('320', 'Airbus A320-200', 5700, 140),
+    ('321', 'Airbus A321-200', 5600, 170),
+    ('319', 'Airbus A319-100', 6700, 116);
+
+INSERT INTO airports (airport_code, airport_name, city, coordinates, timezone) VALUES
+    ('JFK', 'John F Kennedy International Airport', 'New York', '(-73.778889,40.639722)', 'America/New_York'),
+    ('LAX', 'Los Angeles International Airport', 'Los Angeles', '(-118.408056,33.942536)', 'America/Los_Angeles'),
+    ('ORD', 'O''Hare International Airport', 'Chicago', '(-87.904722,41.978611)', 'America/Chicago'),
+    ('MIA', 'Miami International Airport', 'Miami', '(-80.290556,25.793333)', 'America/New_York'),
+    ('SFO', 'San Francisco International Airport', 'San Francisco', '(-122.375,37.618889)', 'America/Los_Angeles');
+
+INSERT INTO flights
+    (flight_no, scheduled_departure, scheduled_arrival, departure_airport, arrival_airport, status, aircraft_code, actual_departure, actual_arrival)
+VALUES
+    ('AA1001', LOCALTIMESTAMP - INTERVAL '5' HOUR, LOCALTIMESTAMP - INTERVAL '2' HOUR, 'JFK', 'LAX', 'Arrived', '773',
+     LOCALTIMESTAMP - INTERVAL '5' HOUR, LOCALTIMESTAMP - INTERVAL '2' HOUR),
+    ('AA1002', LOCALTIMESTAMP - INTERVAL '2' HOUR, LOCALTIMESTAMP + INTERVAL '1' HOUR, 'LAX', 'SFO', 'Departed', '320',
+     LOCALTIMESTAMP - INTERVAL '2' HOUR, NULL),
+    ('AA1003', LOCALTIMESTAMP - INTERVAL '1' HOUR, LOCALTIMESTAMP + INTERVAL '2' HOUR, 'ORD', 'MIA', 'Delayed', '321',
+     NULL, NULL),
+    ('AA1004', LOCALTIMESTAMP + INTERVAL '2' HOUR, LOCALTIMESTAMP + INTERVAL '5' HOUR, 'JFK', 'LAX', 'Scheduled', '773',
+     NULL, NULL),
+    ('AA1005', LOCALTIMESTAMP + INTERVAL '3' HOUR, LOCALTIMESTAMP + INTERVAL '5' HOUR, 'LAX', 'SFO', 'Scheduled', '320',
+     NULL, NULL),
+    ('AA1006', LOCALTIMESTAMP + INTERVAL '4' HOUR, LOCALTIMESTAMP + INTERVAL '7' HOUR, 'ORD', 'MIA', 'Scheduled', '321',
+     NULL, NULL),
+    ('AA1007', LOCALTIMESTAMP + INTERVAL '6' HOUR, LOCALTIMESTAMP + INTERVAL '9' HOUR, 'SFO', 'JFK', 'Cancelled', '773',
+     NULL, NULL);
+
+INSERT INTO bookings (booking_ref, book_date, total_amount) VALUES
+    ('ABC123', LOCALTIMESTAMP - INTERVAL '1' DAY, 550.00),
+    ('DEF456', LOCALTIMESTAMP - INTERVAL '2' DAY, 1200.00),
+    ('GHI789', LOCALTIMESTAMP - INTERVAL '3' DAY, 850.00);
+
+INSERT INTO tickets (ticket_no, booking_ref, passenger_id, passenger_name, contact_data) VALUES
+    ('1234567890123', 'ABC123', 'PS123456', 'John Doe',
+     '{"phone": "+1-234-567-8901", "email": "john.doe@example.com"}'),
+    ('2345678901234', 'DEF456', 'PS234567', 'Jane Smith',
+     '{"phone": "+1-345-678-9012", "email": "jane.smith@example.com"}'),
+    ('3456789012345', 'GHI789', 'PS345678', 'Bob Wilson',
+     '{"phone": "+1-456-789-0123", "email": "bob.wilson@example.com"}');
+
+INSERT INTO ticket_flights (ticket_no, flight_id, fare_conditions, amount) VALUES
+    ('1234567890123', 1, 'Economy', 550.00),
+    ('2345678901234', 2, 'Business', 1200.00),
+    ('3456789012345', 3, 'Economy', 850.00);
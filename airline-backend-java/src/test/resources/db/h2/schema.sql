@@ -0,0 +1,79 @@
+-- H2 port of db/postgres/init/02_schema.sql used by repository tests
+
+CREATE TABLE IF NOT EXISTS aircrafts (
+    aircraft_code CHAR(3) PRIMARY KEY,
+    model VARCHAR(50) NOT NULL,
+    range INTEGER NOT NULL CHECK (range > 0),
+    seats_total INTEGER CHECK (seats_total > 0),
+    version INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS airports (
+    airport_code CHAR(3) PRIMARY KEY,
+    airport_name VARCHAR(100) NOT NULL,
+    city VARCHAR(50) NOT NULL,
+    coordinates VARCHAR(100) NOT NULL,
+    timezone VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS flights (
+    flight_id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    flight_no CHAR(6) NOT NULL,
+    scheduled_departure TIMESTAMP NOT NULL,
+    scheduled_arrival TIMESTAMP NOT NULL,
+    departure_airport CHAR(3) NOT NULL REFERENCES airports(airport_code),
+    arrival_airport CHAR(3) NOT NULL REFERENCES airports(airport_code),
+    status VARCHAR(20) NOT NULL,
+    aircraft_code CHAR(3) NOT NULL REFERENCES aircrafts(aircraft_code),
+    actual_departure TIMESTAMP NULL,
+    actual_arrival TIMESTAMP NULL,
+    version INTEGER NOT NULL DEFAULT 0
+);
+
+-- Flight ids are allocated by Hibernate in blocks of 50 (see 04_sequences.sql)
+CREATE SEQUENCE IF NOT EXISTS flights_flight_id_seq START WITH 101 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS bookings (
+    booking_ref CHAR(6) PRIMARY KEY,
+    book_date TIMESTAMP NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS tickets (
+    ticket_no CHAR(13) PRIMARY KEY,
+    booking_ref CHAR(6) NOT NULL REFERENCES bookings(booking_ref),
+    passenger_id VARCHAR(20) NOT NULL,
+    passenger_name VARCHAR(1000) NOT NULL,
+    contact_data VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS ticket_flights (
+    ticket_no CHAR(13) NOT NULL REFERENCES tickets(ticket_no),
+    flight_id INTEGER NOT NULL REFERENCES flights(flight_id),
+    fare_conditions VARCHAR(10) NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    PRIMARY KEY (ticket_no, flight_id)
+);
+
+-- Stands in for the route_daily_stats materialized view, which H2 lacks;
+-- tests insert its rows directly
+CREATE TABLE IF NOT EXISTS route_daily_stats (
+    departure_airport CHAR(3) NOT NULL,
+    arrival_airport CHAR(3) NOT NULL,
+    flight_date DATE NOT NULL,
+    flights BIGINT NOT NULL,
+    departed BIGINT NOT NULL,
+    on_time BIGINT NOT NULL,
+    cancelled BIGINT NOT NULL,
+    tickets BIGINT NOT NULL,
+    revenue DECIMAL(14,2) NOT NULL,
+    PRIMARY KEY (departure_airport, arrival_airport, flight_date)
+);
+
+CREATE INDEX IF NOT EXISTS flights_departure_airport_sched_idx ON flights(departure_airport, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_arrival_airport_sched_idx ON flights(arrival_airport, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_route_sched_idx ON flights(departure_airport, arrival_airport, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_aircraft_code_sched_idx ON flights(aircraft_code, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_status_sched_idx ON flights(status, scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS flights_scheduled_departure_idx ON flights(scheduled_departure, flight_id);
+CREATE INDEX IF NOT EXISTS tickets_booking_ref_idx ON tickets(booking_ref);